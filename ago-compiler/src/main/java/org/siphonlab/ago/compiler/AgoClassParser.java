@@ -205,11 +205,9 @@ public class AgoClassParser {
 
         if(classDef.getGenericSource() != null){
             ClassDef templateClass = classDef.getTemplateClass();
-            if(templateClass.getCompilingStage() == CompilingStage.ResolveHierarchicalClasses){
-                GenericArgumentsInfo argumentsInfo = (GenericArgumentsInfo) agoClass.getConcreteTypeInfo();
-                if(!resolveHierarchy(argumentsInfo.getTemplateClass(), templateClass)){
-                    return false;
-                }
+            GenericArgumentsInfo argumentsInfo = (GenericArgumentsInfo) agoClass.getConcreteTypeInfo();
+            if(!resolveTemplateHierarchy(argumentsInfo.getTemplateClass(), templateClass)){
+                return false;
             }
             classDef.instantiateHierarchy();
             return true;
@@ -248,6 +246,25 @@ public class AgoClassParser {
         return true;
     }
 
+    // the inner classes of the template must be resolved too, otherwise instantiateHierarchy pushes them
+    // over ResolveHierarchicalClasses without unit and they lose their interfaces
+    private boolean resolveTemplateHierarchy(AgoClass agoClass, ClassDef templateClass) throws CompilationError {
+        if(templateClass.getCompilingStage() == CompilingStage.ResolveHierarchicalClasses){
+            if(!resolveHierarchy(agoClass, templateClass)){
+                return false;
+            }
+        }
+        if(agoClass.getChildren() != null) {
+            for (AgoClass child : agoClass.getChildren()) {
+                ClassDef childDef = classes.get(child);
+                if (childDef != null && childDef.getParent() == templateClass && !resolveTemplateHierarchy(child, childDef)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     private ClassDef mapClass(AgoClass agoClass) throws CompilationError {
         if(agoClass == null) return null;
         var existed = classes.get(agoClass);
@@ -21,6 +21,7 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.siphonlab.ago.AgoClass;
 import org.siphonlab.ago.TypeCode;
+import org.siphonlab.ago.classloader.FrameEscapeAnalyzer;
 import org.siphonlab.ago.compiler.exception.CompilationError;
 import org.siphonlab.ago.compiler.exception.ResolveError;
 import org.siphonlab.ago.compiler.exception.SyntaxError;
@@ -277,10 +278,12 @@ public class BlockCompiler {
             stmt.termVisit(this);
         }
 
-        int[] compiledCode = code.toArray();
+        int[] compiledCode = InstructionFuser.fuse(code.toArray());
         functionDef.setBody(compiledCode);
         functionDef.setCompilingStage(CompilingStage.Compiled);
         functionDef.setSourceMap(code.getSourceMapEntries());
+        functionDef.setFrameEscaped(FrameEscapeAnalyzer.isFrameEscaped(compiledCode));
+        functionDef.setLocalInvokes(code.getLocalInvokes());
 
         if (LOGGER.isDebugEnabled()) LOGGER.debug(functionDef.getFullname());
 
@@ -635,12 +638,15 @@ public class BlockCompiler {
     private Expression incDec(IncDecExprContext incDecExpr) throws CompilationError {
         var expr = incDecExpr.expression();
         SelfArithmetic.Type type = incDecExpr.INC() != null ? SelfArithmetic.Type.IncPost : SelfArithmetic.Type.DecPost;
-        return new SelfArithmetic(functionDef, expression(expr), new IntLiteral(1), type);
+        var site = expression(expr);
+        Assign.checkFinalField(functionDef, site);
+        return new SelfArithmetic(functionDef, site, new IntLiteral(1), type);
     }
 
 
     private Expression assign(AssignExprContext assignExpr) throws CompilationError {
         var assignee = assignee(assignExpr.expression(0));
+        Assign.checkFinalField(functionDef, assignee);
         var value = assigner(assignExpr.expression(1), assignee, assignee.inferType());
         int bopType = assignExpr.bop.getType();
         SourceLocation sourceLocation = unit.sourceLocation(assignExpr);
@@ -1047,7 +1053,23 @@ public class BlockCompiler {
             reusable = false;
         }
 
-        ClassDef type = expression.inferType();
+        var v = tempVariable(expression.inferType());
+        var r = reusable ? new Var.ReusingLocalVar(functionDef, v, Var.LocalVar.VarMode.Temp): new Var.LocalVar(functionDef, v, Var.LocalVar.VarMode.Temp);
+        if(reusable){
+            getSlotsAllocator().lockRegister(v.getSlot());
+            this.reusableTempVariables.put(expression, r);
+        }
+        return r;
+    }
+
+    /**
+     * a temp var of the type, not reusable
+     */
+    public Var.LocalVar acquireTempVar(ClassDef type) {
+        return new Var.LocalVar(functionDef, tempVariable(type), Var.LocalVar.VarMode.Temp);
+    }
+
+    private Variable tempVariable(ClassDef type) {
         if(type instanceof PhantomMetaClassDef) type = functionDef.getRoot().getObjectClass();
         var v = new Variable();
         v.setType(type);
@@ -1056,12 +1078,7 @@ public class BlockCompiler {
         SlotDef slot = getSlotsAllocator().acquireRegister(type);
         v.setSlot(slot);
         v.setName(slot.getName());
-        var r = reusable ? new Var.ReusingLocalVar(functionDef, v, Var.LocalVar.VarMode.Temp): new Var.LocalVar(functionDef, v, Var.LocalVar.VarMode.Temp);
-        if(reusable){
-            getSlotsAllocator().lockRegister(slot);
-            this.reusableTempVariables.put(expression, r);
-        }
-        return r;
+        return v;
     }
 
     public void lockRegister(TermExpression tempVar) {
@@ -1153,6 +1170,8 @@ public class BlockCompiler {
             } else {
                 if(unit.getRoot().getAnyArrayClass().isThatOrSuperOfThat(expressionType)){
                     mode = ForEachStmt.Mode.Array;      // array is Iterable too, however, the for-each stmt will iterate with indexed loop directly
+                } else if(ForEachStmt.isNativeCollection(expressionType)){
+                    mode = ForEachStmt.Mode.NativeCollection;       // walk the native payload by iter_next, no iterator instance
                 }
             }
             // variableModifiers? identifier (AS declarationType)? IN expression
@@ -339,6 +339,7 @@ public class ClassFile {
                 }
                 buff.putInt(oldPos, buff.position() - oldPos - 4);
                 putSourceMap(buff, functionDef.getSourceMap());
+                putEscapeFlags(buff, functionDef);
             }
             if(LOGGER.isDebugEnabled()) LOGGER.debug("    code end:" + buff.position());
         }
@@ -503,6 +504,20 @@ public class ClassFile {
         }
     }
 
+    // escape analysis result, frame escaped flag and addresses of local invoke_v
+    private void putEscapeFlags(IoBuffer buff, FunctionDef functionDef) {
+        buff.put((byte) (functionDef.isFrameEscaped() ? 1 : 0));
+        int[] localInvokes = functionDef.getLocalInvokes();
+        if(localInvokes == null){
+            buff.putInt(0);
+        } else {
+            buff.putInt(localInvokes.length);
+            for (int address : localInvokes) {
+                buff.putInt(address);
+            }
+        }
+    }
+
     private void putSourceMap(IoBuffer buff, List<SourceMapEntry> sourceMap) {
         buff.putInt(sourceMap.size());
         for (SourceMapEntry sourceMapEntry : sourceMap) {
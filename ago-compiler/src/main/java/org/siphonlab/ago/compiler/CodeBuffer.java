@@ -41,6 +41,7 @@ import static org.siphonlab.ago.TypeCode.*;
 
 public class CodeBuffer {
     private final IntArrayList ls = new IntArrayList();
+    private final IntArrayList localInvokes = new IntArrayList();
 
     public int[] toArray(){
         return ls.toIntArray();
@@ -399,6 +400,16 @@ public class CodeBuffer {
         slot(functionInstanceSlot);
     }
 
+    // invoke a frame created for this invocation only, the frame is only invoked and its result accepted, never escapes from caller
+    public void invokeLocal(SlotDef functionInstanceSlot) {
+        localInvokes.addInt(ls.size());
+        invoke(InvokeMode.Invoke, functionInstanceSlot);
+    }
+
+    public int[] getLocalInvokes() {
+        return localInvokes.toIntArray();
+    }
+
     public void invokeAsyncViaContext(InvokeMode mode, SlotDef functionInstanceSlot, SlotDef resultSlot, SlotDef forkContext) {
         var op = switch (mode){
             case Spawn -> Invoke.spawnc_vvo;
@@ -761,6 +772,19 @@ public class CodeBuffer {
         putLabel(label);
     }
 
+    public void iterInit(SlotDef cursor, SlotDef collection) {
+        ls.addInt(Iter.iter_init_vv);
+        this.slot(cursor);
+        this.slot(collection);
+    }
+
+    public void iterNext(SlotDef element, SlotDef cursor, Label exit) {
+        ls.addInt(Iter.iter_next_vvc);
+        this.slot(element);
+        this.slot(cursor);
+        putLabel(exit);
+    }
+
     public void setFinalExit(SlotDef finalExit, Label label) {
         ls.addInt(TryCatch.set_final_exit_vc);
         this.slot(finalExit);
@@ -63,6 +63,9 @@ public class FunctionDef extends ClassDef {
     private List<ClassDef> throwsExceptions = new ArrayList<>();
     private List<SourceMapEntry> sourceMap;
 
+    private boolean frameEscaped = true;        // see FrameEscapeAnalyzer
+    private int[] localInvokes;                 // address of invoke_v whose frame only invoked and result accepted
+
     public FunctionDef(String name, AgoParser.MethodDeclarationContext methodDecl){
         this(name, methodDecl, AgoClass.PUBLIC);
     }
@@ -573,6 +576,22 @@ public class FunctionDef extends ClassDef {
         return sourceMap;
     }
 
+    public boolean isFrameEscaped() {
+        return frameEscaped;
+    }
+
+    public void setFrameEscaped(boolean frameEscaped) {
+        this.frameEscaped = frameEscaped;
+    }
+
+    public int[] getLocalInvokes() {
+        return localInvokes;
+    }
+
+    public void setLocalInvokes(int[] localInvokes) {
+        this.localInvokes = localInvokes;
+    }
+
     // ----------------------- functions for compose expressions  -----------------------------
     public BlockStmt blockStmt(List<Statement> statements){
         return new BlockStmt(this, statements);
@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.compiler;
+
+import org.siphonlab.ago.opcode.Fused;
+import org.siphonlab.ago.opcode.Jump;
+import org.siphonlab.ago.opcode.OpCode;
+
+/**
+ * replace instruction + jump pairs with superinstructions, see {@link Fused}.
+ * the code is rewritten in place, no address changed.
+ */
+public class InstructionFuser {
+
+    public static int[] fuse(int[] code) {
+        for (int pc = 0; pc < code.length; ) {
+            int instruction = code[pc];
+            int next = pc + 1 + (instruction & OpCode.SIZE_MASK);
+            if (next < code.length) {
+                int fused = Fused.fuse(instruction, code[next]);
+                // compare must write the slot that jump_f_B_vc tests
+                if (fused != 0 && (code[next] != Jump.jump_f_B_vc || code[next + 1] == code[pc + 1])) {
+                    code[pc] = fused;
+                }
+            }
+            pc = next;
+        }
+        return code;
+    }
+}
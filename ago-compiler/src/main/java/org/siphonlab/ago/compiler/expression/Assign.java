@@ -85,6 +85,19 @@ public abstract class Assign extends ExpressionInFunctionBody {
         }
     }
 
+    /**
+     * for assignments written in source, a final field can only be assigned in constructors of its class.
+     * the compiler itself assigns final fields elsewhere, i.e. the scope of scoped class and the `field final` parameters
+     */
+    public static void checkFinalField(FunctionDef ownerFunction, Expression assignee) throws CompilationError {
+        if (assignee instanceof Var.Field field) {
+            Variable variable = field.variable;
+            if (variable.isFinal() && !(ownerFunction instanceof ConstructorDef && ownerFunction.getParentClass().isThatOrDerivedFromThat(variable.getOwnerClass()))) {
+                throw new CompilationError("final field '%s' can only be assigned in constructors".formatted(variable.getName()), field.getSourceLocation());
+            }
+        }
+    }
+
     public static Expression processBoundClass(FunctionDef ownerFunction, Assignee assignee, Expression expression) throws CompilationError {
         if(assignee instanceof Var.LocalVar localVar && localVar.varMode == Var.LocalVar.VarMode.Temp){
             return expression;      // register variable allow ScopeBoundClass
@@ -121,6 +121,17 @@ public class Box extends ExpressionInFunctionBody{
         return boxType;
     }
 
+    /**
+     * @return the boxed expression if unbox this box to `primitiveType` gives the same value, so the pair is a move,
+     * null for enum and descendant boxes, they are made by constructors
+     */
+    Expression elideUnbox(ClassDef primitiveType) throws CompilationError {
+        if(boxMode == BoxMode.BoxEnum) return null;
+        if(!(expression.inferType() instanceof PrimitiveClassDef sourceType) || sourceType != primitiveType) return null;
+        if(boxMode == BoxMode.Box && sourceType.getBoxedType() != this.boxType) return null;
+        return expression;
+    }
+
     @Override
     public void outputToLocalVar(Var.LocalVar localVar, BlockCompiler blockCompiler) throws CompilationError {
         try {
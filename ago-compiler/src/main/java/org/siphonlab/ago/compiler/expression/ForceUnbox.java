@@ -31,6 +31,15 @@ class ForceUnbox extends ExpressionInFunctionBody{
         this.toType = implicitOrExplicitPrimaryClass;
     }
 
+    @Override
+    protected Expression transformInner() throws CompilationError {
+        if(this.expression instanceof Box box){
+            var boxed = box.elideUnbox(toType);
+            if(boxed != null) return boxed;
+        }
+        return this;
+    }
+
     @Override
     public ClassDef inferType() throws CompilationError {
         return toType;
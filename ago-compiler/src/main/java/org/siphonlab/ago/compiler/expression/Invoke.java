@@ -27,6 +27,7 @@ import org.siphonlab.ago.compiler.expression.array.ArrayLiteral;
 import org.siphonlab.ago.compiler.expression.literal.ClassRefLiteral;
 import org.siphonlab.ago.compiler.expression.literal.NullLiteral;
 import org.siphonlab.ago.compiler.expression.literal.VoidLiteral;
+import org.siphonlab.ago.compiler.generic.GenericInstantiationFunctionDef;
 import org.siphonlab.ago.compiler.generic.TypeParamsContext;
 
 import java.util.ArrayList;
@@ -149,6 +150,8 @@ public class Invoke extends ExpressionInFunctionBody{
             } else {
                 if(invokeMode == InvokeMode.Await && forkContext != null){
                     blockCompiler.getCode().invokeAsyncViaContext(invokeMode, instance.getVariableSlot(), forkContextVar.getVariableSlot());
+                } else if(invokeMode == InvokeMode.Invoke && instance.varMode == Var.LocalVar.VarMode.Temp){
+                    blockCompiler.getCode().invokeLocal(instance.getVariableSlot());
                 } else {
                     blockCompiler.getCode().invoke(invokeMode, instance.getVariableSlot());
                 }
@@ -194,6 +197,8 @@ public class Invoke extends ExpressionInFunctionBody{
 
             if(forkContext != null){
                 blockCompiler.getCode().invokeAsyncViaContext(invokeMode, instance.getVariableSlot(), forkContextVar.getVariableSlot());
+            } else if(invokeMode == InvokeMode.Invoke && instance.varMode == Var.LocalVar.VarMode.Temp){
+                blockCompiler.getCode().invokeLocal(instance.getVariableSlot());
             } else {
                 blockCompiler.getCode().invoke(invokeMode, instance.getVariableSlot());
             }
@@ -360,6 +365,11 @@ public class Invoke extends ExpressionInFunctionBody{
             Compiler.processClassTillStage(method,CompilingStage.InheritsFields);
         }
         if(candidates != null){
+            // instantiation of a generic method is resolved again from its template, otherwise it ties with the template
+            Collection<FunctionDef> all = candidates;
+            candidates = all.stream()
+                    .filter(c -> c == method || !(c instanceof GenericInstantiationFunctionDef g && all.contains(g.getTemplateClass())))
+                    .toList();
             for (FunctionDef candidate : candidates) {
                 if(candidate.getCompilingStage().lte(CompilingStage.InheritsFields)){
                     Compiler.processClassTillStage(candidate, CompilingStage.InheritsFields);
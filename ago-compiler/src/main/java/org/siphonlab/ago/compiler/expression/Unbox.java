@@ -45,6 +45,10 @@ public class Unbox extends ExpressionInFunctionBody{
         if(this.expression instanceof ConstValue constValue){
             return constValue.toLiteral();
         }
+        if(this.expression instanceof Box box){
+            var boxed = box.elideUnbox(inferType());
+            if(boxed != null) return boxed;
+        }
         return this;
     }
 
@@ -27,6 +27,7 @@ import org.siphonlab.ago.compiler.expression.literal.IntLiteral;
 import org.siphonlab.ago.compiler.expression.math.SelfArithmetic;
 
 import java.util.Collections;
+import java.util.Set;
 
 public class ForEachStmt extends LoopStmt{
 
@@ -40,7 +41,16 @@ public class ForEachStmt extends LoopStmt{
     public enum Mode{
         Iterable,
         Iterator,
-        Array
+        Array,
+        NativeCollection
+    }
+
+    // iterated by iter_init/iter_next, see org.siphonlab.ago.lang.ForInCursor, they must be final, a subclass may override iterator()
+    private static final Set<String> NATIVE_COLLECTIONS = Set.of("lang.ArrayList", "lang.LinkedList", "lang.HashSet", "lang.HashMap");
+
+    public static boolean isNativeCollection(ClassDef type){
+        ClassDef template = type.getTemplateClass();
+        return template != null && template.isNative() && template.isFinal() && NATIVE_COLLECTIONS.contains(template.getFullname());
     }
 
     public ForEachStmt(FunctionDef ownerFunction, String label, Var.LocalVar iterVar, Expression expression, Statement body,
@@ -59,6 +69,10 @@ public class ForEachStmt extends LoopStmt{
             iterateArray(blockCompiler);
             return;
         }
+        if(mode == Mode.NativeCollection){
+            iterateNativeCollection(blockCompiler);
+            return;
+        }
         try {
             blockCompiler.enter(this);
 
@@ -151,6 +165,49 @@ public class ForEachStmt extends LoopStmt{
 
     }
 
+    private void iterateNativeCollection(BlockCompiler blockCompiler) throws CompilationError {
+        try {
+            blockCompiler.enter(this);
+
+            CodeBuffer code = blockCompiler.getCode();
+            Root root = ownerFunction.getRoot();
+
+            ClassDef iterableType = root.getIterableInterface().asThatOrSuperOfThat(expression.inferType());
+            ClassDef elementType = iterableType.getGenericSource().instantiationArguments().getTypeArgumentsArray()[0].getClassDefValue();
+
+            Var.LocalVar collection = (Var.LocalVar) expression.visit(blockCompiler);
+            blockCompiler.lockRegister(collection);
+
+            Var.LocalVar cursor = blockCompiler.acquireTempVar(root.getObjectClass());
+            blockCompiler.lockRegister(cursor);
+            code.iterInit(cursor.getVariableSlot(), collection.getVariableSlot());
+
+            // the element is written to the loop variable directly unless it needs a conversion
+            Var.LocalVar element = iterVar.inferType() == elementType ? iterVar : blockCompiler.acquireTempVar(elementType);
+            blockCompiler.lockRegister(element);
+
+            this.continueLabel = blockCompiler.createLabel().here();
+            this.exitLabel = blockCompiler.createLabel();
+            code.iterNext(element.getVariableSlot(), cursor.getVariableSlot(), exitLabel);
+            if(element != iterVar){
+                ownerFunction.assign(iterVar, element).setSourceLocation(enhanceControlPartSourceLocation).termVisit(blockCompiler);
+            }
+
+            this.body.termVisit(blockCompiler);
+
+            code.jump(continueLabel);
+            exitLabel.here();
+
+            blockCompiler.releaseRegister(element);
+            blockCompiler.releaseRegister(cursor);
+            blockCompiler.releaseRegister(collection);
+        } catch (CompilationError e) {
+            throw e;
+        } finally {
+            blockCompiler.leave(this);
+        }
+    }
+
     @Override
     public String toString() {
         return "for(%s in %s) ".formatted(this.iterVar, this.expression, this.body);
@@ -108,6 +108,12 @@ public class CompilerTest {
                     case 2: i2 += value; return;
                 }
             }
+
+            @Override
+            public void clear() {
+                i0 = i1 = i2 = 0;
+                b3 = false;
+            }
         };
         pureSlotTest(slots);
 
@@ -45,12 +45,14 @@ public class RdbEngine extends AgoEngine {
     public RdbEngine(RdbAdapter rdbAdapter, RunSpaceHost runSpaceHost) {
         super(runSpaceHost);
         this.rdbAdapter = rdbAdapter;
+        this.setFramePooling(false);       // frames are persisted
         createDumpingObjectMapper();
     }
 
     public RdbEngine(RdbAdapter rdbAdapter) {
         super();
         this.rdbAdapter = rdbAdapter;
+        this.setFramePooling(false);       // frames are persisted
         createDumpingObjectMapper();
     }
 
@@ -174,17 +176,14 @@ public class RdbEngine extends AgoEngine {
     }
 
     @Override
-    public AgoClass createScopedClass(CallFrame<?> caller, int classId, Instance<?> parentScope) {
+    public AgoClass createScopedClass(CallFrame<?> caller, int classId, Instance<?> parentScope, boolean inPlace) {
         var c = this.getClass(classId).cloneWithScope(parentScope);
         if (parentScope == null) return c;
 
         ((RdbSlots)c.getSlots()).setId(rdbAdapter.nextId());
         this.rdbAdapter.saveInstance(c);
 
-        AgoFunction emptyArgsConstructor = c.getAgoClass().getEmptyArgsConstructor();
-        if (emptyArgsConstructor != null) {
-            c.invokeMethod(caller, emptyArgsConstructor, emptyArgsConstructor);
-        }
+        invokeEmptyArgsConstructor(caller, c, inPlace);
         return c;
     }
 
@@ -25,6 +25,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 import static org.siphonlab.ago.runtime.rdb.ReferenceCounter.*;
@@ -52,22 +53,24 @@ public class RdbRunSpace extends RunSpace {
     }
 
     @Override
-    public void run() {
+    protected void runFrames() {
         if (this.currCallFrame == null) {
             if (logger.isDebugEnabled()) logger.debug(this + " has no callframe, exit");
         } else {
             if (logger.isDebugEnabled()) logger.debug(this + " run callframe " + this.currCallFrame);
         }
 
-        this.setRunningState(RunningState.RUNNING);
+        if (!startRunning()) return;
         CallFrame<?> cf = null;
         boolean saveAtEnd = false;
-        while (this.currCallFrame != null && !RunningState.isPausingOrWaitingResult(this.getRunningState())) {
+        byte runningState;
+        while (this.currCallFrame != null && !isYielded()
+                && !RunningState.isPausingOrWaitingResult(runningState = this.getRunningState()) && runningState != RunningState.INTERRUPTED) {
             cf = currCallFrame;
 
             if(isRefCallFrame(cf)){
                 increaseRef(cf, Reason.RunCallFrame);
-                rdbAdapter.saveInstance(new CallFrameWithRunningState<>(cf, this.runningState));
+                rdbAdapter.saveInstance(new CallFrameWithRunningState<>(cf, this.getRunningState()));
             }
 
             this.currCallFrame.run();
@@ -79,10 +82,10 @@ public class RdbRunSpace extends RunSpace {
                     if (!ObjectRefOwner.equals(cf, this.currCallFrame)) {
                         assert !cf.isSuspended();
                         // cf is calling currCallFrame
-                        rdbAdapter.saveInstance(new CallFrameWithRunningState<>(cf, this.runningState));
+                        rdbAdapter.saveInstance(new CallFrameWithRunningState<>(cf, this.getRunningState()));
                     } else {
                         // it's suspended
-                        rdbAdapter.saveInstance(new CallFrameWithRunningState<>(cf, this.runningState));
+                        rdbAdapter.saveInstance(new CallFrameWithRunningState<>(cf, this.getRunningState()));
                     }
                 }
 
@@ -97,9 +100,10 @@ public class RdbRunSpace extends RunSpace {
                 }
             }
         }
+        if (this.currCallFrame == null) setFramesReturned();
         tryComplete();
         if(saveAtEnd && isRefCallFrame(cf)) {
-            rdbAdapter.saveInstance(new CallFrameWithRunningState<>(cf, this.runningState));
+            rdbAdapter.saveInstance(new CallFrameWithRunningState<>(cf, this.getRunningState()));
             foldObjectRefFrame(cf);
             releaseCaller(cf);
             releaseRef(cf, Reason.CleanSlotsForCallFrameQuit);
@@ -130,6 +134,14 @@ public class RdbRunSpace extends RunSpace {
         return super.awaitTillComplete(frame);
     }
 
+    @Override
+    public CompletableFuture<Object> invokeAsync(CallFrame<?> frame) {
+        if(frame.getRunSpace() instanceof RdbRunSpace rdbAgoRunSpace){
+            rdbAgoRunSpace.save(frame);
+        }
+        return super.invokeAsync(frame);
+    }
+
     protected void save(Instance<?> instance){
         ((RdbEngine)getAgoEngine()).saveInstance(instance);
     }
@@ -169,9 +181,7 @@ public class RdbRunSpace extends RunSpace {
     }
 
     @Override
-    public void setRunningState(byte runningState) {
-        if(this.runningState == runningState) return;
-        super.setRunningState(runningState);
+    protected void runningStateChanged(byte from, byte to) {
         rdbAdapter.updateRunSpace(this);
     }
 
@@ -264,7 +274,6 @@ public class RdbRunSpace extends RunSpace {
     public void restore(byte runningState, CallFrame<?> currCallFrame, RunSpace parent,
                         List<RunSpace> forkedRunspaces, List<RunSpace> pausingParents,
                         Instance<?> exception, ResultSlots resultSlots) {
-        this.runningState = runningState;
         this.currCallFrame = currCallFrame;
         increaseRef(currCallFrame, ReferenceCounter.Reason.RestoreCallFrame);
         this.parent = parent;
@@ -272,5 +281,6 @@ public class RdbRunSpace extends RunSpace {
         if(pausingParents != null) this.pausingParents.addAll(pausingParents);
         this.exception = exception;
         if(resultSlots != null) this.resultSlots = resultSlots;
+        this.restoreState(runningState);
     }
 }
@@ -178,6 +178,21 @@ public class RdbSlots implements Slots {
         this.objectSlots[slot] = Pair.of(value, slot);
     }
 
+    // object slots are dropped through setObject, so subclasses release what they hold, all slots count as changed
+    @Override
+    public void clear() {
+        if (objectSlots != null) {
+            for (int slot = 0; slot < objectSlots.length; slot++) {
+                if (objectSlots[slot] != null && objectSlots[slot].getLeft() != null) {
+                    setObject(slot, null);
+                }
+                objectSlots[slot] = null;
+                if (!restoring) collectChangedSlot(slot);
+            }
+        }
+        baseSlots.clear();
+    }
+
     public Pair<Instance<?>, Integer>[] getObjectSlots() {
         return objectSlots;
     }
@@ -67,6 +67,11 @@ public class DeferenceAgoFrame extends AgoFrame implements DeferenceCallFrame, O
         this.state.setSaveRequired();
     }
 
+    @Override
+    protected boolean canRunCompiled() {
+        return false;       // persisted frame, keep interpreting
+    }
+
     protected int evaluateLoad(Slots slots, int pc, int instruction) {
         switch (instruction) {
             case Load.loadscope_v:
@@ -113,10 +118,10 @@ public class DeferenceAgoFrame extends AgoFrame implements DeferenceCallFrame, O
                 break;
 
             case Load.bindcls_vCo:
-                slots.setObject(code[pc++], engine.createScopedClass(this, code[pc++], slots.getObject(code[pc++])));
+                slots.setObject(code[pc++], engine.createScopedClass(this, code[pc++], slots.getObject(code[pc++]), true));
                 break;
             case Load.bindcls_scope_vCc:
-                slots.setObject(code[pc++], engine.createScopedClass(this, code[pc++], getScope(code[pc++])));
+                slots.setObject(code[pc++], engine.createScopedClass(this, code[pc++], getScope(code[pc++]), true));
                 break;
 
         }
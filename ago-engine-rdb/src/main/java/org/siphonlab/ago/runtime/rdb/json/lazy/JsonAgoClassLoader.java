@@ -26,6 +26,7 @@ import org.siphonlab.ago.classloader.AgoClassLoader;
 import org.siphonlab.ago.SourceLocation;
 import org.siphonlab.ago.SourceMapEntry;
 import org.siphonlab.ago.native_.AgoNativeFunction;
+import org.siphonlab.ago.opcode.Predecoded;
 
 import javax.sql.DataSource;
 import java.sql.SQLException;
@@ -137,6 +138,8 @@ public class JsonAgoClassLoader extends AgoClassLoader {
                 agoFunction.setParameters(Arrays.stream(parameters).map(this::loadParameter).toArray(AgoParameter[]::new));
 
             agoFunction.setCode(loadPgIntArray((PgArray) row.get("code")));
+            agoFunction.setDecodedCode(Predecoded.decode(agoFunction.getCode()));
+            agoFunction.setInlineCaches(InterfaceInlineCache.allocate(agoFunction.getCode()));
 
             Map<String, Object>[] switchTables = loadPgJsonArrayAsList((PgArray) row.get("switch_tables"));
             if(switchTables != null)
@@ -183,4 +183,7 @@ public class ExpandableSlots implements Slots {
 
     @Override
     public void setVoid(int slot, Object value) {innerSlots.setVoid(slot, value);}
+
+    @Override
+    public void clear() {innerSlots.clear();}
 }
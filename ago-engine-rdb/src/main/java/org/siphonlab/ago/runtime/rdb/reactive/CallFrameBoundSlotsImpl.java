@@ -188,4 +188,9 @@ public class CallFrameBoundSlotsImpl<T extends Slots> implements CallFrameBoundS
     public void incLong(int slot, long value) {
         inner.incLong(slot, value);
     }
+
+    @Override
+    public void clear() {
+        inner.clear();
+    }
 }
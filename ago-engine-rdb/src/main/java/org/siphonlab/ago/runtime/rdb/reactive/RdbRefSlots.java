@@ -18,6 +18,7 @@ package org.siphonlab.ago.runtime.rdb.reactive;
 import org.siphonlab.ago.AgoSlotDef;
 import org.siphonlab.ago.Instance;
 import org.siphonlab.ago.Slots;
+import org.siphonlab.ago.TypeCode;
 import org.siphonlab.ago.runtime.rdb.ObjectRef;
 import org.siphonlab.ago.runtime.rdb.ObjectRefOwner;
 
@@ -199,4 +200,26 @@ public class RdbRefSlots implements Slots, ObjectRefOwner {
         long current = slotsAdapter.getLong(this, objectRef, slot);
         slotsAdapter.setLong(this, objectRef, slot, current + value);
     }
+
+    // write default values through the setters, the referenced row is changed as well
+    @Override
+    public void clear() {
+        if (slotDefs == null) return;
+        for (int slot = 0; slot < slotDefs.length; slot++) {
+            switch (slotDefs[slot].getTypeCode().getValue()) {
+                case TypeCode.INT_VALUE -> setInt(slot, 0);
+                case TypeCode.LONG_VALUE -> setLong(slot, 0L);
+                case TypeCode.FLOAT_VALUE -> setFloat(slot, 0f);
+                case TypeCode.DOUBLE_VALUE -> setDouble(slot, 0d);
+                case TypeCode.BYTE_VALUE -> setByte(slot, (byte) 0);
+                case TypeCode.SHORT_VALUE -> setShort(slot, (short) 0);
+                case TypeCode.CHAR_VALUE -> setChar(slot, (char) 0);
+                case TypeCode.BOOLEAN_VALUE -> setBoolean(slot, false);
+                case TypeCode.STRING_VALUE -> setString(slot, null);
+                case TypeCode.CLASS_REF_VALUE -> setClassRef(slot, 0);
+                case TypeCode.OBJECT_VALUE -> setObject(slot, null);
+                default -> {}
+            }
+        }
+    }
 }
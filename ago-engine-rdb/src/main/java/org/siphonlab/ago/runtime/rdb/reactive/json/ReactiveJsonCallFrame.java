@@ -41,6 +41,7 @@ public class ReactiveJsonCallFrame extends AgoFrame {
         super(slots, agoFunction, engine);
         this.slots = wrapSlots(slots,engine, this);
         this.adapter = (ReactiveJsonPGAdapter) engine.getRdbAdapter();
+        this.decodedCode = null;        // instructions are dispatched to adapter, keep evaluateXxx
     }
 
     static CallFrameBoundSlots<ReactiveJsonRefSlots> wrapSlots(Slots slots, ReactiveJsonAgoEngine engine, ReactiveJsonCallFrame callFrame){
@@ -58,6 +59,11 @@ public class ReactiveJsonCallFrame extends AgoFrame {
         return new ReactiveJsonRefSlotsWithCallFrame(reactiveJsonRefSlots.getObjectRef(), (ReactivePGJsonSlotsAdapter) (adapter.getSlotsAdapter()), reactiveJsonRefSlots.getSlotDefs(), this);
     }
 
+    @Override
+    protected boolean canRunCompiled() {
+        return false;       // instructions are dispatched to adapter
+    }
+
     protected int evaluateMove(Slots slots, int pc, int instruction) {
         if(instruction == Move.move_copy_ooC){
             ReactiveJsonRefSlots dest = (ReactiveJsonRefSlots) slots.getObject(code[pc++]).getSlots();
@@ -20,6 +20,7 @@ import org.agrona.collections.Int2ObjectHashMap;
 import org.siphonlab.ago.classloader.AgoClassLoader;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AgoClass extends Instance<MetaClass>{
 
@@ -81,6 +82,15 @@ public class AgoClass extends Instance<MetaClass>{
 
     // interface id -> interface method id -> method id in me
     private Int2ObjectHashMap<int[]> interfacesMethods;
+    // identity of methods and interfacesMethods for inline caches, shared by scoped clones, renewed when they changed
+    private Object dispatchKey = new Object();
+
+    // ancestors by class id, see SubtypeDisplay
+    private BitSet classDisplay;
+    private BitSet interfaceDisplay;
+    private boolean plainClass;
+    private boolean rootClass;          // lang.Object
+    private Map<String, Boolean> subtypeCache;      // fullname of another class -> is that or super of that
     private SourceLocation sourceLocation;
 
     private AgoClassLoader classLoader;
@@ -130,6 +140,7 @@ public class AgoClass extends Instance<MetaClass>{
 
     public void setMethods(AgoFunction[] methods){
         this.methods = methods;
+        this.dispatchKey = new Object();
     }
 
     public AgoFunction getMethod(int methodIndex) {
@@ -154,6 +165,11 @@ public class AgoClass extends Instance<MetaClass>{
 
     public void setInterfacesMethods(Int2ObjectHashMap<int[]> interfacesMethods) {
         this.interfacesMethods = interfacesMethods;
+        this.dispatchKey = new Object();
+    }
+
+    public Object getDispatchKey() {
+        return dispatchKey;
     }
 
     public boolean isThatOrDerivedFrom(AgoClass anotherClass) {
@@ -169,7 +185,28 @@ public class AgoClass extends Instance<MetaClass>{
     }
 
     public boolean isThatOrSuperOfThat(AgoClass anotherClass){
-        return asThatOrSuperOfThat(anotherClass) != null;
+        if(subtypeCache == null || anotherClass == null) {       // subtype display not built yet, classes may be loading
+            return asThatOrSuperOfThat(anotherClass) != null;
+        }
+        if(plainClass && anotherClass.classDisplay != null){
+            if(rootClass) return true;
+            return (isInterfaceOrTrait() ? anotherClass.interfaceDisplay : anotherClass.classDisplay).get(classId);
+        }
+        // generic instantiation, parameterized and array classes, cache by fullname for scoped clones are equal
+        Boolean r = subtypeCache.get(anotherClass.fullname);
+        if(r == null) {
+            r = asThatOrSuperOfThat(anotherClass) != null;
+            subtypeCache.put(anotherClass.fullname, r);
+        }
+        return r;
+    }
+
+    public void setSubtypeDisplay(BitSet classDisplay, BitSet interfaceDisplay, boolean plainClass) {
+        this.classDisplay = classDisplay;
+        this.interfaceDisplay = interfaceDisplay;
+        this.plainClass = plainClass && classDisplay != null;
+        this.rootClass = this.plainClass && this.equals(superClass);
+        this.subtypeCache = new ConcurrentHashMap<>();
     }
 
     private boolean isThatOrSuperOfThat(AgoClass anotherClass, Set<AgoClass> visited){
@@ -185,7 +222,7 @@ public class AgoClass extends Instance<MetaClass>{
         if(this.equals(anotherClass)) return anotherClass;
 
 //        ClassDef anyClass = getRoot().getAnyClass();      // any class only works in ClassBound
-        if(this.getSuperClass().equals(this)) return anotherClass;       // lang.Object
+        if(this.equals(this.getSuperClass())) return anotherClass;       // lang.Object
 
         if (visited != null) {
             if (visited.contains(anotherClass)) {
@@ -330,7 +367,9 @@ public class AgoClass extends Instance<MetaClass>{
     }
 
     public static class DefaultSlots implements Slots{
-
+        @Override
+        public void clear() {
+        }
     }
 
     public static class TraceOwnerSlots implements Slots{
@@ -339,6 +378,10 @@ public class AgoClass extends Instance<MetaClass>{
         public TraceOwnerSlots(AgoClass agoClass){
             this.agoClass = agoClass;
         }
+
+        @Override
+        public void clear() {
+        }
     }
     private static final Slots DEFAULT_SLOTS = new DefaultSlots();
 
@@ -482,6 +525,12 @@ public class AgoClass extends Instance<MetaClass>{
         cls.setParameterizedBaseClass(this.parameterizedBaseClass);
         cls.setConcreteTypeInfo(this.concreteTypeInfo);
         cls.setInterfacesMethods(interfacesMethods);
+        cls.dispatchKey = this.dispatchKey;
+        cls.classDisplay = this.classDisplay;
+        cls.interfaceDisplay = this.interfaceDisplay;
+        cls.plainClass = this.plainClass;
+        cls.rootClass = this.rootClass;
+        cls.subtypeCache = this.subtypeCache;
         cls.setSourceLocation(sourceLocation);
         cls.setSuperClass(this.superClass);
         cls.setClassId(this.classId);
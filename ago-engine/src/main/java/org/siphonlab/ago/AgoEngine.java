@@ -21,6 +21,8 @@ import com.fasterxml.jackson.databind.module.SimpleModule;
 import io.netty.channel.nio.NioEventLoopGroup;
 import org.siphonlab.ago.classloader.AgoClassLoader;
 import org.siphonlab.ago.classloader.ClassRefValue;
+import org.siphonlab.ago.jit.CompiledFunction;
+import org.siphonlab.ago.jit.FunctionCompiler;
 import org.siphonlab.ago.native_.AgoNativeFunction;
 import org.siphonlab.ago.native_.NativeFrame;
 import org.siphonlab.ago.native_.NativeInstance;
@@ -32,6 +34,8 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executors;
 
 import static org.siphonlab.ago.TypeCode.*;
@@ -61,6 +65,21 @@ public class AgoEngine implements ClassManager{
 
     private LangClasses langClasses;
 
+    // a function compiled to jvm class after entered(include loop back-edges) so many times, <= 0 to disable jit
+    private int jitThreshold = 10000;
+
+    // recycle frames of functions which frame never escapes, see AgoFunction.isFrameRecyclable, needs Slots.clear()
+    private boolean framePooling = true;
+
+    // run native functions in the evaluation loop of caller and write the result to the slot of caller, see NativeFrame.runInline
+    private boolean inlineNativeCall = true;
+
+    // a RunSpace yields to its RunSpaceHost after so many loop back-edges, let other RunSpaces on the host run, <= 0 to disable
+    private int timeSlice = 100000;
+
+    // counters and histograms of RunSpaces, null to disable, see RunSpaceMetrics
+    private volatile MetricsSink metricsSink;
+
     public String toString(int i){
         return strings[i];
     }
@@ -151,7 +170,12 @@ public class AgoEngine implements ClassManager{
         this.runSpaceClass = langClasses.getRunSpaceClass();
 
         // applyMetaClasses(classLoader.getMetaClassCreationQueue()); // TODO applyMetaClasses will change the slots info, however, we need jsonObjectMapper for dump slots
-        applyMetaClasses(classLoader.getMetaClassCreationQueue());
+        try {
+            applyMetaClasses(classLoader.getMetaClassCreationQueue()).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            throw e;
+        }
     }
 
     public AgoClass getRunSpaceClass() {
@@ -203,43 +227,52 @@ public class AgoEngine implements ClassManager{
         }
     }
 
-    private void applyMetaClasses(List<MetaClassCreatingTask> metaClassCreationQueue) {
+    private CompletableFuture<?> applyMetaClasses(List<MetaClassCreatingTask> metaClassCreationQueue) {
         for (AgoClass agoClass : this.classes) {
             agoClass.initSlots();
         }
-
-        while(!metaClassCreationQueue.isEmpty()){
-            var item = metaClassCreationQueue.removeFirst();
-            if(LOGGER.isDebugEnabled()) LOGGER.debug("apply meta class %s".formatted(item));
-            var constructor = item.constructor;
-            CallFrame<?> frame = createFunctionInstance(item.target, constructor, null, null);
-            Object[] arguments = item.arguments;
-            for (int i = 0; i < arguments.length; i++) {
-                Object argument = arguments[i];
-                var p = constructor.getParameters()[i];
-                switch (p.getTypeCode().value){
-                    case INT_VALUE:       frame.getSlots().setInt(i, (Integer) argument); break;
-                    case STRING_VALUE:    frame.getSlots().setString(i, (String) argument); break;
-                    case LONG_VALUE:      frame.getSlots().setLong(i, (Long)argument); break;
-                    case BOOLEAN_VALUE:   frame.getSlots().setBoolean(i, (Boolean)argument); break;
-                    case DOUBLE_VALUE:    frame.getSlots().setDouble(i, (Double) argument); break;
-                    case BYTE_VALUE:      frame.getSlots().setByte(i, (Byte) argument); break;
-                    case FLOAT_VALUE:     frame.getSlots().setFloat(i, (Float) argument); break;
-                    case CHAR_VALUE:      frame.getSlots().setChar(i, (Character)argument); break;
-                    case SHORT_VALUE:     frame.getSlots().setShort(i, (Short) argument); break;
-                    case CLASS_REF_VALUE: frame.getSlots().setClassRef(i, classByName.get(((ClassRefValue) argument).className()).getClassId()); break;
-                    default:
-                        if(p.getAgoClass() instanceof AgoEnum agoEnum){
-                            var enumValue = agoEnum.findMember(argument);
-                            assert enumValue != null;
-                            frame.getSlots().setObject(i,enumValue);
-                            break;
-                        }
-                        throw new RuntimeException("unexpected type for meta class constructor");
-                }
+        return applyNextMetaClass(metaClassCreationQueue);
+    }
+
+    // each constructor starts in host when the previous completed, no thread waits between them
+    private CompletableFuture<?> applyNextMetaClass(List<MetaClassCreatingTask> metaClassCreationQueue) {
+        if(metaClassCreationQueue.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        var item = metaClassCreationQueue.removeFirst();
+        if(LOGGER.isDebugEnabled()) LOGGER.debug("apply meta class %s".formatted(item));
+        return this.runSpace.invokeAsync(createMetaClassConstructorFrame(item))
+                .thenCompose(r -> applyNextMetaClass(metaClassCreationQueue));
+    }
+
+    private CallFrame<?> createMetaClassConstructorFrame(MetaClassCreatingTask item) {
+        var constructor = item.constructor;
+        CallFrame<?> frame = createFunctionInstance(item.target, constructor, null, null);
+        Object[] arguments = item.arguments;
+        for (int i = 0; i < arguments.length; i++) {
+            Object argument = arguments[i];
+            var p = constructor.getParameters()[i];
+            switch (p.getTypeCode().value){
+                case INT_VALUE:       frame.getSlots().setInt(i, (Integer) argument); break;
+                case STRING_VALUE:    frame.getSlots().setString(i, (String) argument); break;
+                case LONG_VALUE:      frame.getSlots().setLong(i, (Long)argument); break;
+                case BOOLEAN_VALUE:   frame.getSlots().setBoolean(i, (Boolean)argument); break;
+                case DOUBLE_VALUE:    frame.getSlots().setDouble(i, (Double) argument); break;
+                case BYTE_VALUE:      frame.getSlots().setByte(i, (Byte) argument); break;
+                case FLOAT_VALUE:     frame.getSlots().setFloat(i, (Float) argument); break;
+                case CHAR_VALUE:      frame.getSlots().setChar(i, (Character)argument); break;
+                case SHORT_VALUE:     frame.getSlots().setShort(i, (Short) argument); break;
+                case CLASS_REF_VALUE: frame.getSlots().setClassRef(i, classByName.get(((ClassRefValue) argument).className()).getClassId()); break;
+                default:
+                    if(p.getAgoClass() instanceof AgoEnum agoEnum){
+                        var enumValue = agoEnum.findMember(argument);
+                        assert enumValue != null;
+                        frame.getSlots().setObject(i,enumValue);
+                        break;
+                    }
+                    throw new RuntimeException("unexpected type for meta class constructor");
             }
-            this.runSpace.awaitTillComplete(frame);
         }
+        return frame;
     }
 
     public void run(String functionName){
@@ -266,9 +299,13 @@ public class AgoEngine implements ClassManager{
         if(LOGGER.isDebugEnabled()) LOGGER.debug("create instance of " + agoFunction);
         CallFrame<?> result;
         if (agoFunction instanceof AgoNativeFunction agoNativeFunction) {
-            result = new NativeFrame(this, agoNativeFunction.createSlots(), agoNativeFunction);
+            NativeFrame recycled = framePooling && caller != null && caller.getRunSpace() != null
+                    ? caller.getRunSpace().acquireNativeFrame(agoNativeFunction) : null;
+            result = recycled != null ? recycled : new NativeFrame(this, agoNativeFunction.createSlots(), agoNativeFunction);
         } else {
-            result = new AgoFrame(agoFunction.createSlots(), agoFunction, this);
+            AgoFrame recycled = framePooling && agoFunction.isFrameRecyclable() && caller != null && caller.getRunSpace() != null
+                    ? caller.getRunSpace().acquireFrame(agoFunction) : null;
+            result = recycled != null ? recycled : new AgoFrame(agoFunction.createSlots(), agoFunction, this);
         }
         if(parentScope != null) result.setParentScope(parentScope);
         return result;
@@ -309,14 +346,31 @@ public class AgoEngine implements ClassManager{
     }
 
     public AgoClass createScopedClass(CallFrame<?> caller, int classId, Instance<?> parentScope) {
+        return createScopedClass(caller, classId, parentScope, false);
+    }
+
+    /**
+     * @param inPlace the caller is the running AgoFrame, the empty args constructor runs as its callee in the same RunSpace,
+     *                and the caller exits evaluation loop to let it run, see AgoFrame evaluating bindcls;
+     *                otherwise the constructor runs in another RunSpace and the calling thread waits for it
+     */
+    public AgoClass createScopedClass(CallFrame<?> caller, int classId, Instance<?> parentScope, boolean inPlace) {
         var c = classes[classId].cloneWithScope(parentScope);
         if(parentScope == null) return c;
 
-        AgoFunction emptyArgsConstructor = c.getAgoClass().getEmptyArgsConstructor();
+        invokeEmptyArgsConstructor(caller, c, inPlace);
+        return c;
+    }
+
+    protected void invokeEmptyArgsConstructor(CallFrame<?> caller, AgoClass scopedClass, boolean inPlace) {
+        AgoFunction emptyArgsConstructor = scopedClass.getAgoClass().getEmptyArgsConstructor();
         if(emptyArgsConstructor != null){
-            c.invokeMethod(caller, emptyArgsConstructor,emptyArgsConstructor);
+            if(inPlace) {
+                scopedClass.invokeMethodInPlace(caller, emptyArgsConstructor);
+            } else {
+                scopedClass.invokeMethod(caller, emptyArgsConstructor);
+            }
         }
-        return c;
     }
 
     // create ScopedClassInterval instance from scopedClass
@@ -411,4 +465,65 @@ public class AgoEngine implements ClassManager{
     public LangClasses getLangClasses() {
         return langClasses;
     }
+
+    public int getJitThreshold() {
+        return jitThreshold;
+    }
+
+    public void setJitThreshold(int jitThreshold) {
+        this.jitThreshold = jitThreshold;
+    }
+
+    public boolean isFramePooling() {
+        return framePooling;
+    }
+
+    public void setFramePooling(boolean framePooling) {
+        this.framePooling = framePooling;
+    }
+
+    public boolean isInlineNativeCall() {
+        return inlineNativeCall;
+    }
+
+    public void setInlineNativeCall(boolean inlineNativeCall) {
+        this.inlineNativeCall = inlineNativeCall;
+    }
+
+    public int getTimeSlice() {
+        return timeSlice;
+    }
+
+    public void setTimeSlice(int timeSlice) {
+        this.timeSlice = timeSlice;
+    }
+
+    public MetricsSink getMetricsSink() {
+        return metricsSink;
+    }
+
+    /**
+     * collect metrics of RunSpaces created after, i.e. a RunSpaceMetrics, null to stop
+     */
+    public void setMetricsSink(MetricsSink metricsSink) {
+        this.metricsSink = metricsSink;
+    }
+
+    /**
+     * compile the hot function to jvm class, if failed, the function stays in interpreter
+     * @return null if not compiled
+     */
+    public CompiledFunction compileFunction(AgoFunction agoFunction) {
+        try {
+            CompiledFunction compiledFunction = new FunctionCompiler(agoFunction).compile();
+            if (compiledFunction != null) {
+                agoFunction.setCompiledFunction(compiledFunction);
+                if (LOGGER.isDebugEnabled()) LOGGER.debug("%s compiled".formatted(agoFunction));
+            }
+            return compiledFunction;
+        } catch (Exception e) {
+            LOGGER.warn("compile %s failed, keep interpreting".formatted(agoFunction), e);
+            return null;
+        }
+    }
 }
@@ -16,6 +16,9 @@
 package org.siphonlab.ago;
 
 import org.apache.commons.lang3.StringUtils;
+import org.siphonlab.ago.jit.CompiledFunction;
+import org.siphonlab.ago.lang.ForInCursor;
+import org.siphonlab.ago.native_.NativeFrame;
 import org.siphonlab.ago.native_.NativeInstance;import org.siphonlab.ago.opcode.*;
 import org.siphonlab.ago.opcode.compare.*;
 import org.siphonlab.ago.opcode.logic.*;
@@ -40,15 +43,20 @@ public class AgoFrame extends CallFrame<AgoFunction>{
 
     protected final int[] code;        // copy from AgoFunction, a bit speedup
 
+    protected byte[] decodedCode;       // null if the frame need evaluate all instructions by evaluateXxx
+
     protected int pc;             // current position at code
 
     protected final AgoEngine engine;
 
+    private boolean recyclable;     // invoked directly and the function never let frame escape, recycle it after returned
+
     public AgoFrame(Slots slots, AgoFunction agoFunction, AgoEngine engine) {
         super(slots, agoFunction );
         this.setAgoClass(agoFunction);
         this.engine = engine;
         code = agoFunction.getCode();
+        decodedCode = agoFunction.getDecodedCode();
     }
 
     protected CallFrame<?> getCallFrameAt(int slot){
@@ -68,70 +76,294 @@ public class AgoFrame extends CallFrame<AgoFunction>{
 
         final Slots slots = self.getSlots();
         final int[] code = this.code;
+        final byte[] decoded = this.decodedCode;
+        pc = enterCompiled(slots, pc);
         while(pc < code.length){
+            final int handler = decoded == null ? Predecoded.GENERIC : decoded[pc];
             final int instruction = code[pc++];
             if(LOGGER.isDebugEnabled()) LOGGER.debug("%s(%s): %s".formatted(this, pc, OpCode.getName(instruction)));
 
-            switch (instruction >> 24){
-                case Const.OP: pc = evaluateConst(slots, pc, instruction); break;
-                case Move.OP: pc = evaluateMove(slots, pc, instruction); break;
-                case Add.OP:  pc = evaluateAdd(slots, pc, instruction); break;
-                case New.OP:  pc = evaluateNew(slots, pc, instruction); break;
-                case Invoke.OP: {
-                    if(evaluateInvoke(self, instruction)) {
-                        if(this.debugger != null) this.debugger.leaveFrame(this);
-                        return;
-                    } else break;
+            switch (handler){
+                case Predecoded.CONST_I_VC:     slots.setInt(code[pc++], code[pc++]); break;
+                case Predecoded.CONST_B_VC:     slots.setBoolean(code[pc++], code[pc++] != 0); break;
+
+                case Predecoded.MOVE_I_VV:      slots.setInt(code[pc++], slots.getInt(code[pc++])); break;
+                case Predecoded.MOVE_B_VV:      slots.setBoolean(code[pc++], slots.getBoolean(code[pc++])); break;
+                case Predecoded.MOVE_L_VV:      slots.setLong(code[pc++], slots.getLong(code[pc++])); break;
+                case Predecoded.MOVE_D_VV:      slots.setDouble(code[pc++], slots.getDouble(code[pc++])); break;
+                case Predecoded.MOVE_O_VV:      slots.setObject(code[pc++], slots.getObject(code[pc++])); break;
+                case Predecoded.MOVE_FLD_I_OVV: slots.getObject(code[pc++]).getSlots().setInt(code[pc++], slots.getInt(code[pc++])); break;
+                case Predecoded.MOVE_FLD_I_VOV: slots.setInt(code[pc++], slots.getObject(code[pc++]).getSlots().getInt(code[pc++])); break;
+                case Predecoded.MOVE_FLD_O_OVV: slots.getObject(code[pc++]).getSlots().setObject(code[pc++], slots.getObject(code[pc++])); break;
+                case Predecoded.MOVE_FLD_O_VOV: slots.setObject(code[pc++], slots.getObject(code[pc++]).getSlots().getObject(code[pc++])); break;
+
+                case Predecoded.ADD_I_VC:       slots.incInt(code[pc++], code[pc++]); break;
+                case Predecoded.ADD_I_VV:       slots.incInt(code[pc++], slots.getInt(code[pc++])); break;
+                case Predecoded.ADD_I_VVC:      slots.setInt(code[pc++], slots.getInt(code[pc++]) + code[pc++]); break;
+                case Predecoded.ADD_I_VVV:      slots.setInt(code[pc++], slots.getInt(code[pc++]) + slots.getInt(code[pc++])); break;
+                case Predecoded.SUB_I_VC:       slots.incInt(code[pc++], -code[pc++]); break;
+                case Predecoded.SUB_I_VVC:      slots.setInt(code[pc++], slots.getInt(code[pc++]) - code[pc++]); break;
+                case Predecoded.SUB_I_VVV:      slots.setInt(code[pc++], slots.getInt(code[pc++]) - slots.getInt(code[pc++])); break;
+                case Predecoded.MUL_I_VVC:      slots.setInt(code[pc++], slots.getInt(code[pc++]) * code[pc++]); break;
+                case Predecoded.MUL_I_VVV:      slots.setInt(code[pc++], slots.getInt(code[pc++]) * slots.getInt(code[pc++])); break;
+                case Predecoded.ADD_L_VVV:      slots.setLong(code[pc++], slots.getLong(code[pc++]) + slots.getLong(code[pc++])); break;
+                case Predecoded.ADD_D_VVV:      slots.setDouble(code[pc++], slots.getDouble(code[pc++]) + slots.getDouble(code[pc++])); break;
+
+                case Predecoded.EQ_I_VVC:       slots.setBoolean(code[pc++], slots.getInt(code[pc++]) == code[pc++]); break;
+                case Predecoded.EQ_I_VVV:       slots.setBoolean(code[pc++], slots.getInt(code[pc++]) == slots.getInt(code[pc++])); break;
+                case Predecoded.NE_I_VVC:       slots.setBoolean(code[pc++], slots.getInt(code[pc++]) != code[pc++]); break;
+                case Predecoded.NE_I_VVV:       slots.setBoolean(code[pc++], slots.getInt(code[pc++]) != slots.getInt(code[pc++])); break;
+                case Predecoded.LT_I_VVC:       slots.setBoolean(code[pc++], slots.getInt(code[pc++]) < code[pc++]); break;
+                case Predecoded.LT_I_VVV:       slots.setBoolean(code[pc++], slots.getInt(code[pc++]) < slots.getInt(code[pc++])); break;
+                case Predecoded.LE_I_VVC:       slots.setBoolean(code[pc++], slots.getInt(code[pc++]) <= code[pc++]); break;
+                case Predecoded.LE_I_VVV:       slots.setBoolean(code[pc++], slots.getInt(code[pc++]) <= slots.getInt(code[pc++])); break;
+                case Predecoded.GT_I_VVC:       slots.setBoolean(code[pc++], slots.getInt(code[pc++]) > code[pc++]); break;
+                case Predecoded.GT_I_VVV:       slots.setBoolean(code[pc++], slots.getInt(code[pc++]) > slots.getInt(code[pc++])); break;
+                case Predecoded.GE_I_VVC:       slots.setBoolean(code[pc++], slots.getInt(code[pc++]) >= code[pc++]); break;
+                case Predecoded.GE_I_VVV:       slots.setBoolean(code[pc++], slots.getInt(code[pc++]) >= slots.getInt(code[pc++])); break;
+
+                case Predecoded.JUMP_C: {
+                    int target = code[pc];
+                    pc = target < pc ? backEdge(slots, target) : target;     // back-edge
+                    break;
                 }
-                case Accept.OP: pc = evaluateAccept(slots, pc, instruction); break;
-                case TryCatch.OP: {
-                    if(evaluateTryCatch(slots, instruction)) break; else {
-                        if(this.debugger != null) this.debugger.leaveFrame(this);
-                        return;
-                    }
+                case Predecoded.JUMP_T_B_VC: {
+                    if(slots.getBoolean(code[pc++])) {
+                        int target = code[pc];
+                        pc = target < pc ? backEdge(slots, target) : target;
+                    } else pc++;
+                    break;
+                }
+                case Predecoded.JUMP_F_B_VC: {
+                    if(!slots.getBoolean(code[pc++])) {
+                        int target = code[pc];
+                        pc = target < pc ? backEdge(slots, target) : target;
+                    } else pc++;
+                    break;
                 }
-                case Pause.OP: {
-                    evaluatePause();
-                    if(this.debugger != null) this.debugger.leaveFrame(this);
-                    return;
+                case Predecoded.LT_JF_I_VVC:    pc = jumpUnless(slots, pc + 3, code[pc], slots.getInt(code[pc + 1]) < code[pc + 2]); break;
+                case Predecoded.LT_JF_I_VVV:    pc = jumpUnless(slots, pc + 3, code[pc], slots.getInt(code[pc + 1]) < slots.getInt(code[pc + 2])); break;
+                case Predecoded.LE_JF_I_VVC:    pc = jumpUnless(slots, pc + 3, code[pc], slots.getInt(code[pc + 1]) <= code[pc + 2]); break;
+                case Predecoded.LE_JF_I_VVV:    pc = jumpUnless(slots, pc + 3, code[pc], slots.getInt(code[pc + 1]) <= slots.getInt(code[pc + 2])); break;
+                case Predecoded.GT_JF_I_VVC:    pc = jumpUnless(slots, pc + 3, code[pc], slots.getInt(code[pc + 1]) > code[pc + 2]); break;
+                case Predecoded.GT_JF_I_VVV:    pc = jumpUnless(slots, pc + 3, code[pc], slots.getInt(code[pc + 1]) > slots.getInt(code[pc + 2])); break;
+                case Predecoded.GE_JF_I_VVC:    pc = jumpUnless(slots, pc + 3, code[pc], slots.getInt(code[pc + 1]) >= code[pc + 2]); break;
+                case Predecoded.GE_JF_I_VVV:    pc = jumpUnless(slots, pc + 3, code[pc], slots.getInt(code[pc + 1]) >= slots.getInt(code[pc + 2])); break;
+                case Predecoded.EQ_JF_I_VVC:    pc = jumpUnless(slots, pc + 3, code[pc], slots.getInt(code[pc + 1]) == code[pc + 2]); break;
+                case Predecoded.EQ_JF_I_VVV:    pc = jumpUnless(slots, pc + 3, code[pc], slots.getInt(code[pc + 1]) == slots.getInt(code[pc + 2])); break;
+                case Predecoded.NE_JF_I_VVC:    pc = jumpUnless(slots, pc + 3, code[pc], slots.getInt(code[pc + 1]) != code[pc + 2]); break;
+                case Predecoded.NE_JF_I_VVV:    pc = jumpUnless(slots, pc + 3, code[pc], slots.getInt(code[pc + 1]) != slots.getInt(code[pc + 2])); break;
+                case Predecoded.ADD_JUMP_I_VC: {
+                    slots.incInt(code[pc], code[pc + 1]);
+                    int target = code[pc + 3];
+                    pc = target < pc ? backEdge(slots, target) : target;
+                    break;
                 }
-                case Jump.OP: pc = evaluateJump(slots, pc, instruction); break;
-                case Concat.OP: pc = evaluateConcat(slots, pc, instruction); break;
-                case Return.OP: pc = evaluateReturn(self, slots, pc, instruction); break;
-                case Cast.OP: pc = evaluateCast(slots,pc, instruction); break;
-                case Load.OP: pc = evaluateLoad(slots, pc, instruction); break;
-                case Array.OP: pc = evaluateArray(slots, pc, instruction); break;
-                case Box.OP: pc = evaluateBox(slots, pc, instruction); break;
-                case Equals.OP: pc = evaluateEquals(slots, pc, instruction); break;
-                case NotEquals.OP: pc = evaluateNotEquals(slots, pc, instruction); break;
-                case LittleThan.OP: pc = evaluateLittleThan(slots, pc, instruction); break;
-                case GreaterThan.OP: pc = evaluateGreaterThan(slots, pc, instruction); break;
-                case GreaterEquals.OP: pc = evaluateGreaterEquals(slots, pc, instruction); break;
-                case LittleEquals.OP: pc = evaluateLittleEquals(slots, pc, instruction); break;
-                case Subtract.OP: pc = evaluateSub(slots, pc, instruction); break;
-                case Multiply.OP: pc = evaluateMultiply(slots, pc, instruction); break;
-                case Div.OP: pc = evaluateDiv(slots, pc, instruction); break;
-                case Mod.OP: pc = evaluateMod(slots, pc, instruction); break;
-                case Neg.OP: pc = evaluateNeg(slots, pc, instruction); break;
-                case IncDec.OP: pc = evaluateIncDec(slots, pc, instruction); break;
-                case And.OP: pc = evaluateAnd(slots, pc, instruction); break;
-                case Or.OP: pc = evaluateOr(slots, pc, instruction); break;
-                case Not.OP: pc = evaluateNot(slots, pc, instruction); break;
-                case BitAnd.OP: pc = evaluateBitAnd(slots, pc, instruction); break;
-                case BitOr.OP: pc = evaluateBitOr(slots, pc, instruction); break;
-                case BitXor.OP: pc = evaluateBitXor(slots, pc, instruction); break;
-                case BitNot.OP: pc = evaluateBitNot(slots, pc, instruction); break;
-                case BitShiftLeft.OP: pc = evaluateBitLShift(slots, pc, instruction); break;
-                case BitShiftRight.OP: pc = evaluateBitRShift(slots, pc, instruction); break;
-                case BitUnsignedRight.OP: pc = evaluateBitURShift(slots, pc, instruction); break;
-                case InstanceOf.OP: pc = evaluateInstanceOf(slots, pc, instruction); break;
                 default:
-                    throw new UnsupportedOperationException("%s not implemented yet, at '%s'".formatted(OpCode.getName(instruction), this));
+                    switch (instruction >> 24){
+                        case Const.OP: pc = evaluateConst(slots, pc, instruction); break;
+                        case Move.OP: pc = evaluateMove(slots, pc, instruction); break;
+                        case Add.OP:  pc = evaluateAdd(slots, pc, instruction); break;
+                        case New.OP:  pc = evaluateNew(slots, pc, instruction); break;
+                        case Invoke.OP: {
+                            if(evaluateInvoke(self, instruction)) {
+                                if(this.debugger != null) this.debugger.leaveFrame(this);
+                                return;
+                            } else break;
+                        }
+                        case Accept.OP: pc = evaluateAccept(slots, pc, instruction); break;
+                        case TryCatch.OP: {
+                            if(evaluateTryCatch(slots, instruction)) break; else {
+                                if(this.debugger != null) this.debugger.leaveFrame(this);
+                                return;
+                            }
+                        }
+                        case Pause.OP: {
+                            evaluatePause();
+                            if(this.debugger != null) this.debugger.leaveFrame(this);
+                            return;
+                        }
+                        case Jump.OP: {
+                            int target = evaluateJump(slots, pc, instruction);
+                            pc = target < pc ? backEdge(slots, target) : target;     // back-edge
+                            break;
+                        }
+                        case Concat.OP: pc = evaluateConcat(slots, pc, instruction); break;
+                        case Return.OP: pc = evaluateReturn(self, slots, pc, instruction); break;
+                        case Cast.OP: pc = evaluateCast(slots,pc, instruction); break;
+                        case Load.OP: {
+                            pc = evaluateLoad(slots, pc, instruction);
+                            if(runSpace.getCurrentCallFrame() != self) {     // bindcls invoked constructor in place, continue after it returned
+                                nextPC();
+                                if(this.debugger != null) this.debugger.leaveFrame(this);
+                                return;
+                            } else break;
+                        }
+                        case Array.OP: pc = evaluateArray(slots, pc, instruction); break;
+                        case Box.OP: pc = evaluateBox(slots, pc, instruction); break;
+                        case Equals.OP: pc = evaluateEquals(slots, pc, instruction); break;
+                        case NotEquals.OP: pc = evaluateNotEquals(slots, pc, instruction); break;
+                        case LittleThan.OP: pc = evaluateLittleThan(slots, pc, instruction); break;
+                        case GreaterThan.OP: pc = evaluateGreaterThan(slots, pc, instruction); break;
+                        case GreaterEquals.OP: pc = evaluateGreaterEquals(slots, pc, instruction); break;
+                        case LittleEquals.OP: pc = evaluateLittleEquals(slots, pc, instruction); break;
+                        case Subtract.OP: pc = evaluateSub(slots, pc, instruction); break;
+                        case Multiply.OP: pc = evaluateMultiply(slots, pc, instruction); break;
+                        case Div.OP: pc = evaluateDiv(slots, pc, instruction); break;
+                        case Mod.OP: pc = evaluateMod(slots, pc, instruction); break;
+                        case Neg.OP: pc = evaluateNeg(slots, pc, instruction); break;
+                        case IncDec.OP: pc = evaluateIncDec(slots, pc, instruction); break;
+                        case And.OP: pc = evaluateAnd(slots, pc, instruction); break;
+                        case Or.OP: pc = evaluateOr(slots, pc, instruction); break;
+                        case Not.OP: pc = evaluateNot(slots, pc, instruction); break;
+                        case BitAnd.OP: pc = evaluateBitAnd(slots, pc, instruction); break;
+                        case BitOr.OP: pc = evaluateBitOr(slots, pc, instruction); break;
+                        case BitXor.OP: pc = evaluateBitXor(slots, pc, instruction); break;
+                        case BitNot.OP: pc = evaluateBitNot(slots, pc, instruction); break;
+                        case BitShiftLeft.OP: pc = evaluateBitLShift(slots, pc, instruction); break;
+                        case BitShiftRight.OP: pc = evaluateBitRShift(slots, pc, instruction); break;
+                        case BitUnsignedRight.OP: pc = evaluateBitURShift(slots, pc, instruction); break;
+                        case InstanceOf.OP: pc = evaluateInstanceOf(slots, pc, instruction); break;
+                        case Fused.OP: {
+                            int target = evaluateFused(slots, pc, instruction);
+                            pc = target < pc ? backEdge(slots, target) : target;     // back-edge
+                            break;
+                        }
+                        case Iter.OP: pc = evaluateIter(slots, pc, instruction); break;
+                        default:
+                            throw new UnsupportedOperationException("%s not implemented yet, at '%s'".formatted(OpCode.getName(instruction), this));
+                    }
             }
             nextPC();
         }
 
+        if(pc > code.length){       // stopped at a back-edge for the time slice used up, see yieldAt
+            pc -= code.length + 1;
+            runSpace.yieldSlice();
+            if(this.debugger != null) this.debugger.leaveFrame(this);
+            return;
+        }
         if(this.debugger != null) this.debugger.leaveFrame(this);
+        if(recyclable && stateHandler == null && this.debugger == null && engine.isFramePooling()){
+            recyclable = false;
+            runSpace.recycleFrame(this);
+        }
+    }
+
+    /**
+     * reset a recycled frame before reuse
+     */
+    void reset(){
+        slots.clear();
+        pc = 0;
+        caller = null;
+        runSpace = null;
+        stateHandler = null;
+        suspended = false;
+        parentScope = null;
+        recyclable = false;
+    }
+
+    /**
+     * a backward jump, yield when the time slice of RunSpace used up, otherwise may switch to compiled code
+     * @return the pc that interpreter continue with
+     */
+    protected int backEdge(Slots slots, int target){
+        if(!tickBackEdge()) return yieldAt(target);
+        return enterCompiled(slots, target);
+    }
+
+    /**
+     * @return false if the time slice of RunSpace used up
+     */
+    public boolean tickBackEdge(){
+        return runSpace == null || runSpace.tickBackEdge();
+    }
+
+    /**
+     * the pc beyond code that ends the interpreter loop, the frame yields and continues at `target` when executed again.
+     * compiled code returns it too
+     */
+    public static int yieldAt(int[] code, int target){
+        return code.length + 1 + target;
+    }
+
+    private int yieldAt(int target){
+        return yieldAt(code, target);
+    }
+
+    /**
+     * switch to compiled code when the function is hot
+     * @param pc must be 0 or a jump target
+     * @return the pc that interpreter continue with
+     */
+    protected int enterCompiled(Slots slots, int pc){
+        if(!canRunCompiled()) return pc;
+        CompiledFunction compiled = agoClass.getCompiledFunction();
+        if(compiled == null){
+            int threshold = engine.getJitThreshold();
+            if(threshold <= 0 || agoClass.increaseHotness() != threshold) return pc;
+            compiled = engine.compileFunction(agoClass);
+            if(compiled == null) return pc;
+        }
+        return compiled.run(this, slots, pc);
+    }
+
+    /**
+     * compiled code evaluate instructions directly, for debugger or frame with customized evaluation, keep interpreting
+     */
+    protected boolean canRunCompiled(){
+        return this.debugger == null;
+    }
+
+    /**
+     * the fused compare and the jump_f_B_vc follows it
+     * @param pc position of the jump_f_B_vc
+     * @return the pc after jump
+     */
+    private int jumpUnless(Slots slots, int pc, int conditionSlot, boolean condition){
+        slots.setBoolean(conditionSlot, condition);
+        if(condition) return pc + 3;
+        int target = code[pc + 2];
+        return target < pc ? backEdge(slots, target) : target;
+    }
+
+    /**
+     * evaluate the original instruction by its handler, then the jump follows it
+     * @return the jump target, or the position after the jump
+     */
+    protected int evaluateFused(Slots slots, int pc, int instruction) {
+        int original = Fused.unfuse(instruction);
+        int jumpAt = switch (original >> 24) {
+            case Add.OP -> evaluateAdd(slots, pc, original);
+            case LittleThan.OP -> evaluateLittleThan(slots, pc, original);
+            case LittleEquals.OP -> evaluateLittleEquals(slots, pc, original);
+            case GreaterThan.OP -> evaluateGreaterThan(slots, pc, original);
+            case GreaterEquals.OP -> evaluateGreaterEquals(slots, pc, original);
+            case Equals.OP -> evaluateEquals(slots, pc, original);
+            case NotEquals.OP -> evaluateNotEquals(slots, pc, original);
+            default -> throw new UnsupportedOperationException("%s not implemented yet, at '%s'".formatted(OpCode.getName(instruction), this));
+        };
+        if(instruction == Fused.add_jump_i_vc){
+            return code[jumpAt + 1];        // jump_c(address)
+        }
+        // jump_f_B_vc(slot, address)
+        return slots.getBoolean(code[jumpAt + 1]) ? jumpAt + 3 : code[jumpAt + 2];
+    }
+
+    /**
+     * for-in over native collections, the loop jumps back by the jump_c at its end
+     */
+    protected int evaluateIter(Slots slots, int pc, int instruction) {
+        switch (instruction){
+            case Iter.iter_init_vv:
+                slots.setObject(code[pc], ForInCursor.begin(slots.getObject(code[pc + 1]), this));
+                return pc + 2;
+            case Iter.iter_next_vvc:
+                return ForInCursor.next(slots.getObject(code[pc + 1]), slots, code[pc]) ? pc + 3 : code[pc + 2];
+            default:
+                throw new UnsupportedOperationException("%s not implemented yet, at '%s'".formatted(OpCode.getName(instruction), this));
+        }
     }
 
     protected void evaluatePause() {
@@ -156,6 +388,14 @@ public class AgoFrame extends CallFrame<AgoFunction>{
         frame.setCaller(self);
         switch (instruction){
             case Invoke.invoke_v:
+                if(frame instanceof NativeFrame nativeFrame && nativeFrame.stateHandler == null && this.debugger == null
+                        && engine.isInlineNativeCall()){
+                    return !invokeNativeInline(self, nativeFrame);
+                }
+                // only the frame created for this invocation, a frame in user variable may be read after returned
+                if(frame instanceof AgoFrame agoFrame && agoFrame.agoClass.isFrameRecyclable()
+                        && decodedCode != null && decodedCode[pc - 2] == Predecoded.INVOKE_V_LOCAL)
+                    agoFrame.recyclable = true;
                 frame.setRunSpace(this.getRunSpace());
                 runSpace.setCurrCallFrame(frame);
                 return true;
@@ -198,6 +438,28 @@ public class AgoFrame extends CallFrame<AgoFunction>{
         throw new UnsupportedOperationException("unknow instruction " + OpCode.getName(instruction));
     }
 
+    /**
+     * run the native in this evaluation loop, a synchronous result is written to the slot of the following accept instruction
+     * and the accept skipped; the frame is recycled if created for this invocation only
+     * @return false if the native went async or threw, this frame should exit as a normal invoke
+     */
+    private boolean invokeNativeInline(CallFrame<?> self, NativeFrame nativeFrame) {
+        boolean local = decodedCode != null && decodedCode[pc - 2] == Predecoded.INVOKE_V_LOCAL;
+        boolean direct = pc < code.length && isDirectAccept(code[pc]);
+        nativeFrame.setRunSpace(runSpace);
+        runSpace.setCurrCallFrame(nativeFrame);
+        if(!nativeFrame.runInline(direct ? self.getSlots() : null, direct ? code[pc + 1] : -1)) return false;
+        if(direct) pc += 2;
+        runSpace.setCurrCallFrame(self);
+        if(local && engine.isFramePooling()) runSpace.recycleFrame(nativeFrame);
+        return true;
+    }
+
+    // accept_any_v boxes by the type of ResultSlots, leave it to evaluateAccept
+    private static boolean isDirectAccept(int instruction) {
+        return (instruction >> 24) == Accept.OP && instruction != Accept.accept_any_v;
+    }
+
     private ForkContext extractForkContext(Instance<?> forkContext) {
         return (ForkContext)((NativeInstance) forkContext).getNativePayload();
     }
@@ -1025,8 +1287,9 @@ public class AgoFrame extends CallFrame<AgoFunction>{
             case Load.loadcls2_scope_v:     slots.setObject(code[pc++], this.getParentScope().getAgoClass().getAgoClass()); break;
             case Load.loadcls2_vo:          slots.setObject(code[pc++], slots.getObject(code[pc++]).getAgoClass().getAgoClass()); break;
 
-            case Load.bindcls_vCo:          slots.setObject(code[pc++], engine.createScopedClass(this, code[pc++], slots.getObject(code[pc++]))); break;
-            case Load.bindcls_scope_vCc:    slots.setObject(code[pc++], engine.createScopedClass(this, code[pc++], getScope(code[pc++]))); break;
+            // the constructor of scoped class becomes current frame, see the exit after evaluateLoad
+            case Load.bindcls_vCo:          slots.setObject(code[pc++], engine.createScopedClass(this, code[pc++], slots.getObject(code[pc++]), true)); break;
+            case Load.bindcls_scope_vCc:    slots.setObject(code[pc++], engine.createScopedClass(this, code[pc++], getScope(code[pc++]), true)); break;
 
         }
         return pc;
@@ -1169,7 +1432,11 @@ public class AgoFrame extends CallFrame<AgoFunction>{
                 }
                 case New.new_method_voIm: {
                     Instance<?> scope;
-                    slots.setObject(code[pc++], engine.createFunctionInstance(scope = slots.getObject(code[pc++]), scope.getAgoClass().resolveMethodByInterface(code[pc++], code[pc++]), this, this ));
+                    InterfaceInlineCache inlineCache = decodedCode != null && decodedCode[pc - 1] == Predecoded.NEW_METHOD_VOIM
+                            ? agoClass.getInlineCache(Predecoded.callSiteId(decodedCode, pc - 1)) : null;
+                    slots.setObject(code[pc++], engine.createFunctionInstance(scope = slots.getObject(code[pc++]),
+                            inlineCache != null ? inlineCache.resolve(scope.getAgoClass()) : scope.getAgoClass().resolveMethodByInterface(code[pc], code[pc + 1]), this, this ));
+                    pc += 2;
                     break;
                 }
                 case New.new_cls_method_vCm:{
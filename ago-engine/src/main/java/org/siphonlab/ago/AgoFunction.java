@@ -17,6 +17,7 @@ package org.siphonlab.ago;
 
 
 import org.siphonlab.ago.classloader.AgoClassLoader;
+import org.siphonlab.ago.jit.CompiledFunction;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -30,12 +31,19 @@ public class AgoFunction extends AgoClass{
     private AgoParameter[] parameters;
 
     protected int[] code;     // compiled code, for class it's the initializers
+    protected byte[] decodedCode;     // handler id of each instruction, see Predecoded
     private SwitchTable[] switchTables;
     private TryCatchItem[] tryCatchItems;
     private SourceMapEntry[] sourceMap;
 
     Map<String, AgoParameter> parameterByName;
 
+    private int hotness;        // entered and back-edges count, not accurate under concurrency, needn't
+    private volatile CompiledFunction compiledFunction;
+
+    private boolean frameRecyclable;        // the frame never escapes, can be recycled after returned
+    private InterfaceInlineCache[] inlineCaches;        // indexed by call site id, see Predecoded.callSiteId
+
 
     public AgoFunction(AgoClassLoader classLoader,  MetaClass metaClass, String fullname, String name) {
         super(classLoader, metaClass, fullname, name);
@@ -79,6 +87,46 @@ public class AgoFunction extends AgoClass{
         return code;
     }
 
+    public void setDecodedCode(byte[] decodedCode) {
+        this.decodedCode = decodedCode;
+    }
+
+    public byte[] getDecodedCode() {
+        return decodedCode;
+    }
+
+    public int increaseHotness() {
+        return ++hotness;
+    }
+
+    public CompiledFunction getCompiledFunction() {
+        return compiledFunction;
+    }
+
+    public void setCompiledFunction(CompiledFunction compiledFunction) {
+        this.compiledFunction = compiledFunction;
+    }
+
+    public boolean isFrameRecyclable() {
+        return frameRecyclable;
+    }
+
+    public void setFrameRecyclable(boolean frameRecyclable) {
+        this.frameRecyclable = frameRecyclable;
+    }
+
+    public InterfaceInlineCache[] getInlineCaches() {
+        return inlineCaches;
+    }
+
+    public void setInlineCaches(InterfaceInlineCache[] inlineCaches) {
+        this.inlineCaches = inlineCaches;
+    }
+
+    public InterfaceInlineCache getInlineCache(int callSiteId) {
+        return inlineCaches == null ? null : inlineCaches[callSiteId];
+    }
+
     public boolean isConstructor(){
         return (this.modifiers & AgoClass.CONSTRUCTOR) != 0;
     }
@@ -138,9 +186,13 @@ public class AgoFunction extends AgoClass{
         copy.setVariables(this.getVariables());
         copy.setParameters(this.getParameters());
         copy.setCode(this.getCode());
+        copy.setDecodedCode(this.getDecodedCode());
         copy.setSwitchTables(this.getSwitchTables());
         copy.setTryCatchItems(this.getTryCatchItems());
         copy.setSourceMap(this.getSourceMap());
+        copy.setCompiledFunction(this.getCompiledFunction());
+        copy.setFrameRecyclable(this.isFrameRecyclable());
+        copy.setInlineCaches(this.getInlineCaches());
         copy.parameterByName = this.parameterByName;
     }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago;
+
+import java.util.Arrays;
+
+/**
+ * slots backed by arrays, primitives in long[] and references in Object[], both indexed by slot number directly.
+ * there is only one Slots class for all AgoClasses, the slot access in interpreter loop keeps monomorphic and inlined by jvm,
+ * while the generated Slots classes of DefaultSlotsCreatorFactory make it megamorphic.
+ * unlike generated Slots, slot type is not checked.
+ */
+public final class ArraySlots implements Slots {
+
+    private final long[] primitives;
+    private final Object[] references;
+
+    public ArraySlots(int size) {
+        this.primitives = new long[size];
+        this.references = new Object[size];
+    }
+
+    @Override
+    public int getInt(int slot) {
+        return (int) primitives[slot];
+    }
+
+    @Override
+    public int getClassRef(int slot) {
+        return (int) primitives[slot];
+    }
+
+    @Override
+    public long getLong(int slot) {
+        return primitives[slot];
+    }
+
+    @Override
+    public float getFloat(int slot) {
+        return Float.intBitsToFloat((int) primitives[slot]);
+    }
+
+    @Override
+    public double getDouble(int slot) {
+        return Double.longBitsToDouble(primitives[slot]);
+    }
+
+    @Override
+    public byte getByte(int slot) {
+        return (byte) primitives[slot];
+    }
+
+    @Override
+    public short getShort(int slot) {
+        return (short) primitives[slot];
+    }
+
+    @Override
+    public char getChar(int slot) {
+        return (char) primitives[slot];
+    }
+
+    @Override
+    public boolean getBoolean(int slot) {
+        return primitives[slot] != 0;
+    }
+
+    @Override
+    public String getString(int slot) {
+        return (String) references[slot];
+    }
+
+    @Override
+    public Instance<?> getObject(int slot) {
+        return (Instance<?>) references[slot];
+    }
+
+    @Override
+    public void setInt(int slot, int value) {
+        primitives[slot] = value;
+    }
+
+    @Override
+    public void setClassRef(int slot, int value) {
+        primitives[slot] = value;
+    }
+
+    @Override
+    public void setLong(int slot, long value) {
+        primitives[slot] = value;
+    }
+
+    @Override
+    public void setFloat(int slot, float value) {
+        primitives[slot] = Float.floatToRawIntBits(value);
+    }
+
+    @Override
+    public void setDouble(int slot, double value) {
+        primitives[slot] = Double.doubleToRawLongBits(value);
+    }
+
+    @Override
+    public void setByte(int slot, byte value) {
+        primitives[slot] = value;
+    }
+
+    @Override
+    public void setShort(int slot, short value) {
+        primitives[slot] = value;
+    }
+
+    @Override
+    public void setChar(int slot, char value) {
+        primitives[slot] = value;
+    }
+
+    @Override
+    public void setBoolean(int slot, boolean value) {
+        primitives[slot] = value ? 1 : 0;
+    }
+
+    @Override
+    public void setString(int slot, String value) {
+        references[slot] = value;
+    }
+
+    @Override
+    public void setObject(int slot, Instance<?> value) {
+        references[slot] = value;
+    }
+
+    @Override
+    public void incInt(int slot, int value) {
+        primitives[slot] = (int) primitives[slot] + value;
+    }
+
+    @Override
+    public void incFloat(int slot, float value) {
+        setFloat(slot, getFloat(slot) + value);
+    }
+
+    @Override
+    public void incDouble(int slot, double value) {
+        setDouble(slot, getDouble(slot) + value);
+    }
+
+    @Override
+    public void incByte(int slot, byte value) {
+        primitives[slot] = (byte) (primitives[slot] + value);
+    }
+
+    @Override
+    public void incShort(int slot, short value) {
+        primitives[slot] = (short) (primitives[slot] + value);
+    }
+
+    @Override
+    public void incLong(int slot, long value) {
+        primitives[slot] += value;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(primitives, 0);
+        Arrays.fill(references, null);
+    }
+}
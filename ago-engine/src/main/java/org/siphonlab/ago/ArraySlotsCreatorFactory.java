@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago;
+
+import static org.siphonlab.ago.TypeCode.CLASS_REF;
+
+/**
+ * create {@link ArraySlots} instead of generated classes, no class generated when load.
+ * usage: <code>new AgoClassLoader(new ArraySlotsCreatorFactory())</code>
+ */
+public class ArraySlotsCreatorFactory implements SlotsCreatorFactory {
+
+    @Override
+    public SlotsCreator generateSlotsCreator(AgoClass agoClass) {
+        AgoSlotDef[] slotDefs = agoClass.getSlotDefs();
+        if(slotDefs == null || slotDefs.length == 0) return null;
+
+        Class<?>[] slotTypes = new Class<?>[slotDefs.length];
+        for (int i = 0; i < slotDefs.length; i++) {
+            TypeCode typeCode = slotDefs[i].getTypeCode();
+            slotTypes[i] = typeCode == CLASS_REF ? AgoClass.class : DefaultSlotsCreatorFactory.typeOf(typeCode);
+        }
+        int size = slotDefs.length;
+        return new SlotsCreator() {
+            @Override
+            public Slots create() {
+                return new ArraySlots(size);
+            }
+
+            @Override
+            public Class<?> getSlotType(int slotIndex) {
+                return slotTypes[slotIndex];
+            }
+        };
+    }
+}
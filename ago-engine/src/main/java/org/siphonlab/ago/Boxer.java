@@ -26,6 +26,10 @@ import static org.siphonlab.ago.TypeCode.SHORT_VALUE;
 import static org.siphonlab.ago.TypeCode.STRING_VALUE;
 
 public class Boxer {
+    // boxes of the lang classes are shared for small values like java Integer.valueOf, they are never written after created
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 127;
+
     private final BoxTypes boxTypes;
 
     private final AgoClass INTEGER;
@@ -41,6 +45,47 @@ public class Boxer {
 
     private AgoEngine engine;
 
+    // created on first use, the box classes may have no slots creator yet when the Boxer created
+    private volatile Caches caches;
+
+    private final class Caches {
+        final Instance<?>[] ints = new Instance<?>[CACHE_HIGH - CACHE_LOW + 1];
+        final Instance<?>[] longs = new Instance<?>[CACHE_HIGH - CACHE_LOW + 1];
+        final Instance<?>[] shorts = new Instance<?>[CACHE_HIGH - CACHE_LOW + 1];
+        final Instance<?>[] bytes = new Instance<?>[256];
+        final Instance<?>[] chars = new Instance<?>[CACHE_HIGH + 1];
+        final Instance<?> TRUE = BOOLEAN == null ? null : newBoolean(true);
+        final Instance<?> FALSE = BOOLEAN == null ? null : newBoolean(false);
+        final Instance<?> EMPTY_STRING = STRING == null ? null : newString("");
+
+        // lang may not declare all the box classes, i.e. Short, Byte and Char, their boxes are left null
+        Caches() {
+            for (int i = 0; i < ints.length; i++) {
+                if (INTEGER != null) ints[i] = newInt(i + CACHE_LOW);
+                if (LONG != null) longs[i] = newLong(i + CACHE_LOW);
+                if (SHORT != null) shorts[i] = newShort((short) (i + CACHE_LOW));
+            }
+            if (BYTE != null) {
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = newByte((byte) (i + Byte.MIN_VALUE));
+                }
+            }
+            if (CHAR != null) {
+                for (int i = 0; i < chars.length; i++) {
+                    chars[i] = newChar((char) i);
+                }
+            }
+        }
+    }
+
+    private Caches caches() {
+        Caches c = caches;
+        if (c == null) {
+            caches = c = new Caches();
+        }
+        return c;
+    }
+
     public Boxer(BoxTypes boxTypes, LangClasses langClasses) {
         this.boxTypes = boxTypes;
         this.INTEGER = langClasses.getIntegerClass();
@@ -73,30 +118,55 @@ public class Boxer {
     }
 
     public Instance<?> boxInt(int i) {
+        if (i >= CACHE_LOW && i <= CACHE_HIGH && INTEGER != null) return caches().ints[i - CACHE_LOW];
+        return newInt(i);
+    }
+
+    private Instance<?> newInt(int i) {
         var instance = new Instance<>(INTEGER.createSlots(), INTEGER);
         instance.slots.setInt(0, i);
         return instance;
     }
 
     public Instance<?> boxLong(long l) {
+        if (l >= CACHE_LOW && l <= CACHE_HIGH && LONG != null) return caches().longs[(int) l - CACHE_LOW];
+        return newLong(l);
+    }
+
+    private Instance<?> newLong(long l) {
         var instance = new Instance<>(LONG.createSlots(), LONG);
         instance.slots.setLong(0, l);
         return instance;
     }
 
     public Instance<?> boxByte(byte b) {
+        if (BYTE == null) return newByte(b);
+        return caches().bytes[b - Byte.MIN_VALUE];
+    }
+
+    private Instance<?> newByte(byte b) {
         var instance = new Instance<>(BYTE.createSlots(), BYTE);
         instance.slots.setByte(0, b);
         return instance;
     }
 
     public Instance<?> boxChar(char c) {
+        if (c <= CACHE_HIGH && CHAR != null) return caches().chars[c];
+        return newChar(c);
+    }
+
+    private Instance<?> newChar(char c) {
         var instance = new Instance<>(CHAR.createSlots(), CHAR);
         instance.slots.setChar(0, c);
         return instance;
     }
 
     public Instance<?> boxShort(short i) {
+        if (i >= CACHE_LOW && i <= CACHE_HIGH && SHORT != null) return caches().shorts[i - CACHE_LOW];
+        return newShort(i);
+    }
+
+    private Instance<?> newShort(short i) {
         var instance = new Instance<>(SHORT.createSlots(), SHORT);
         instance.slots.setShort(0, i);
         return instance;
@@ -110,12 +180,23 @@ public class Boxer {
     }
 
     public Instance<?> boxString(String s) {
+        if (s != null && s.isEmpty() && STRING != null) return caches().EMPTY_STRING;
+        return newString(s);
+    }
+
+    private Instance<?> newString(String s) {
         var instance = new Instance<>(STRING.createSlots(), STRING);
         instance.slots.setString(0, s);
         return instance;
     }
 
     public Instance<?> boxBoolean(boolean b) {
+        if (BOOLEAN == null) return newBoolean(b);
+        Caches c = caches();
+        return b ? c.TRUE : c.FALSE;
+    }
+
+    private Instance<?> newBoolean(boolean b) {
         var instance = new Instance<>(BOOLEAN.createSlots(), BOOLEAN);
         instance.slots.setBoolean(0, b);
         return instance;
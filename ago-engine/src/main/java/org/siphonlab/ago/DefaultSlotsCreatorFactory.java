@@ -125,6 +125,11 @@ public class DefaultSlotsCreatorFactory implements SlotsCreatorFactory {
             }
         }
 
+        MethodMaker clear = clsCM.addMethod(void.class, "clear").public_().override();
+        for (AgoSlotDef slotDef : slotDefs) {
+            clear.field(fieldName(slotDef)).clear();
+        }
+
         var slotsClass = clsCM.finish();
 
         var providerCM = ClassMaker.begin(composeNativeClassName(agoClass) + "_slots_provider").public_().implement(SlotsCreator.class);
@@ -15,6 +15,8 @@
  */
 package org.siphonlab.ago;
 
+import java.util.concurrent.CompletableFuture;
+
 /*
     Instance 是 AgoClass 的 ago 实例, 不是 AgoClass 的 Java 实例. AgoClass 的实例相当于 Class<T>
  */
@@ -63,6 +65,38 @@ public class Instance<C extends AgoClass>  {
         return invokeMethod(caller,caller.getRunSpace(),method, arguments);
     }
     public Object invokeMethod(CallFrame<?> caller, RunSpace runSpace, AgoFunction method, Object... arguments){
+        return runSpace.awaitTillComplete(createInvocation(caller, runSpace, method, arguments));
+    }
+
+    /**
+     * invoke method in a new RunSpace run by the calling thread, safe to call in natives, see RunSpace.runTillComplete
+     */
+    public Object invokeMethodInCurrentThread(CallFrame<?> caller, AgoFunction method, Object... arguments){
+        RunSpace runSpace = caller.getRunSpace();
+        return runSpace.runTillComplete(createInvocation(caller, runSpace, method, arguments));
+    }
+
+    /**
+     * invoke method in a new RunSpace without blocking the calling thread
+     * @return completes with the result, or exceptionally with the unhandled exception
+     */
+    public CompletableFuture<Object> invokeMethodAsync(CallFrame<?> caller, RunSpace runSpace, AgoFunction method, Object... arguments){
+        return runSpace.invokeAsync(createInvocation(caller, runSpace, method, arguments));
+    }
+
+    /**
+     * invoke method as the callee of the running frame in caller's RunSpace, like invoke_v does.
+     * the running frame must exit its evaluation loop after this, and continues when the method returned
+     */
+    public void invokeMethodInPlace(CallFrame<?> caller, AgoFunction method, Object... arguments){
+        RunSpace runSpace = caller.getRunSpace();
+        CallFrame<?> callFrame = createInvocation(caller, runSpace, method, arguments);
+        callFrame.setCaller(runSpace.getCurrentCallFrame());    // the caller itself, or the EntranceCallFrame wraps it
+        callFrame.setRunSpace(runSpace);
+        runSpace.setCurrCallFrame(callFrame);
+    }
+
+    private CallFrame<?> createInvocation(CallFrame<?> caller, RunSpace runSpace, AgoFunction method, Object... arguments){
         CallFrame<?> callFrame = runSpace.getAgoEngine().createFunctionInstance(this, method, caller, caller);
         for (int i = 0; i < arguments.length; i++) {
             Object argument = arguments[i];
@@ -90,7 +124,7 @@ public class Instance<C extends AgoClass>  {
                 callFrame.getSlots().setObject(i, null);
             }
         }
-        return runSpace.awaitTillComplete(callFrame);
+        return callFrame;
     }
 
 //    public void run(Instance<?> instance, String functionName, Object... arguments) throws ClassNotFoundException {
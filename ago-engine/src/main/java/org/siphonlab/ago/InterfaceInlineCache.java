@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago;
+
+import org.siphonlab.ago.opcode.New;
+import org.siphonlab.ago.opcode.OpCode;
+import org.siphonlab.ago.opcode.Predecoded;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * inline cache of a `new_method_voIm` call site, remembers receiver class -> resolved method.
+ * a function holds one cache per call site, indexed by the call site id assigned in Predecoded.decode.
+ * monomorphic at first, polymorphic up to MAX_ENTRIES receiver classes, beyond that the site is megamorphic
+ * and resolves by AgoClass.resolveMethodByInterface each time.
+ * the key is AgoClass.getDispatchKey, scoped clones share the key of the class they cloned from,
+ * and a class renews its key when methods changed, so the old entries never hit again.
+ * entries are replaced as a whole, a racing update loses an entry at most.
+ */
+public final class InterfaceInlineCache {
+
+    private static final int MAX_ENTRIES = 4;
+
+    private record Entry(Object key, AgoFunction method) {
+    }
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private final int interfaceClassId;
+    private final int methodIdInInterface;
+    private volatile Entry[] entries = EMPTY;
+
+    public InterfaceInlineCache(int interfaceClassId, int methodIdInInterface) {
+        this.interfaceClassId = interfaceClassId;
+        this.methodIdInInterface = methodIdInInterface;
+    }
+
+    public AgoFunction resolve(AgoClass receiverClass) {
+        Object key = receiverClass.getDispatchKey();
+        Entry[] entries = this.entries;
+        for (Entry entry : entries) {
+            if (entry.key == key) return entry.method;
+        }
+        AgoFunction method = receiverClass.resolveMethodByInterface(interfaceClassId, methodIdInInterface);
+        if (entries.length < MAX_ENTRIES) {
+            Entry[] newEntries = new Entry[entries.length + 1];
+            System.arraycopy(entries, 0, newEntries, 0, entries.length);
+            newEntries[entries.length] = new Entry(key, method);
+            this.entries = newEntries;
+        }
+        return method;
+    }
+
+    /**
+     * @param code the transformed code of a function
+     * @return inline caches indexed by call site id, in pc order of `new_method_voIm`, null if no such instruction
+     */
+    public static InterfaceInlineCache[] allocate(int[] code) {
+        if (code == null) return null;
+        List<InterfaceInlineCache> caches = null;
+        for (int pc = 0; pc < code.length; pc += 1 + (code[pc] & OpCode.SIZE_MASK)) {
+            if (code[pc] == New.new_method_voIm) {
+                if (caches == null) caches = new ArrayList<>();
+                if (caches.size() == Predecoded.MAX_CALL_SITES) break;
+                caches.add(new InterfaceInlineCache(code[pc + 3], code[pc + 4]));
+            }
+        }
+        return caches == null ? null : caches.toArray(new InterfaceInlineCache[0]);
+    }
+}
@@ -27,6 +27,7 @@ public class LangClasses {
     private final AgoClass throwableClass;
     private final AgoClass functionClass;
     private final AgoClass runSpaceClass;
+    private final AgoClass forInCursorClass;
 
     private final AgoClass integerClass;
     private final AgoClass longClass;
@@ -71,6 +72,7 @@ public class LangClasses {
         this.throwableClass = classManager.getClass("lang.Throwable");
         this.functionClass = classManager.getClass("lang.Function");
         this.runSpaceClass = classManager.getClass("lang.RunSpace");
+        this.forInCursorClass = classManager.getClass("lang.ForInCursor");
 
         this.integerClass = classManager.getClass("lang.Integer");
         this.longClass = classManager.getClass("lang.Long");
@@ -145,6 +147,10 @@ public class LangClasses {
         return runSpaceClass;
     }
 
+    public AgoClass getForInCursorClass() {
+        return forInCursorClass;
+    }
+
     public AgoClass getIntegerClass() {
         return integerClass;
     }
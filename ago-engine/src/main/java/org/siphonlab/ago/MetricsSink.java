@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago;
+
+/**
+ * receives events of RunSpaces when set to AgoEngine.setMetricsSink, called in the threads running the RunSpaces,
+ * so an implementation should only count, see RunSpaceMetrics
+ */
+public interface MetricsSink {
+
+    void runSpaceCreated(RunSpace runSpace);
+
+    /**
+     * @param from running state before, see RunSpace.RunningState
+     * @param to running state after, a finished state is the last change
+     */
+    void runningStateChanged(RunSpace runSpace, byte from, byte to);
+
+    /**
+     * the RunSpace ran a quantum in its host, till it returned, waited, paused or yielded
+     */
+    void ran(RunSpace runSpace, long nanos);
+
+    /**
+     * the RunSpace waited result so long, i.e. of an async native or an awaited RunSpace
+     */
+    void waited(RunSpace runSpace, long nanos);
+}
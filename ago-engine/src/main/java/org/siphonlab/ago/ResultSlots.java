@@ -168,6 +168,21 @@ public class ResultSlots {
         return dataType;
     }
 
+    public void copyFrom(ResultSlots other) {
+        this.booleanValue = other.booleanValue;
+        this.charValue = other.charValue;
+        this.floatValue = other.floatValue;
+        this.doubleValue = other.doubleValue;
+        this.byteValue = other.byteValue;
+        this.shortValue = other.shortValue;
+        this.intValue = other.intValue;
+        this.longValue = other.longValue;
+        this.objectValue = other.objectValue;
+        this.stringValue = other.stringValue;
+        this.classRefValue = other.classRefValue;
+        this.dataType = other.dataType;
+    }
+
     public Instance<?> castAnyToObject(Boxer boxer) {
         switch (getDataType()) {
             case VOID_VALUE:
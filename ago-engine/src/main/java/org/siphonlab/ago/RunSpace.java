@@ -16,16 +16,26 @@
 package org.siphonlab.ago;
 
 import org.apache.mina.util.ConcurrentHashSet;
+import org.siphonlab.ago.native_.AgoNativeFunction;
+import org.siphonlab.ago.native_.NativeFrame;
 import org.siphonlab.ago.runtime.UnhandledException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
 
 public class RunSpace implements Runnable{
 
@@ -59,7 +69,26 @@ public class RunSpace implements Runnable{
     protected Instance<?> exception;
     protected ResultSlots resultSlots = new ResultSlots();
 
-    protected byte runningState = RunningState.PENDING;
+    // the state word, all transitions are CAS on it:
+    //      low byte is RunningState, bits 8-11 are EXECUTING, RESCHEDULE, RETURNED and NOTIFIED, high 32 bits count forked spaces not completed
+    private volatile long state = RunningState.PENDING;
+    private static final long RUNNING_STATE_MASK = 0xff;
+    private static final long EXECUTING = 1 << 8;         // a thread is in run()
+    private static final long RESCHEDULE = 1 << 9;        // executed again while EXECUTING, the running thread submits it after leaving
+    private static final long RETURNED = 1 << 10;         // all frames returned, complete when forked spaces completed
+    private static final long NOTIFIED = 1 << 11;         // INTERRUPTED and notified, once no thread is in run()
+    private static final long ONE_FORKED = 1L << 32;
+    private static final VarHandle STATE;
+    private static final VarHandle FORK_BATCH;
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(RunSpace.class, "state", long.class);
+            FORK_BATCH = MethodHandles.lookup().findVarHandle(RunSpace.class, "forkBatch", ForkBatch.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     protected final Set<RunSpace> pausingParents = new ConcurrentHashSet<>();
 
     protected Set<RunSpace> forkedSpaces = new ConcurrentHashSet<>();
@@ -67,11 +96,49 @@ public class RunSpace implements Runnable{
 
     protected Exception unhandledException;
 
+    private static final int MAX_POOLED_FRAMES = 16;      // for each function
+    private IdentityHashMap<AgoFunction, ArrayDeque<CallFrame<?>>> framePool;  // only accessed by the thread running this RunSpace
+
+    private int sliceLeft;          // back-edges left in current time slice, see AgoEngine.getTimeSlice
+    private boolean yielded;
+
+    private volatile Object homeWorker;     // the worker of host this runs on, resumes are routed back to it
+
+    // collected only when the engine has a MetricsSink
+    private long runNanos;
+    private long waitingSince;
+
     public interface CompleteListener {
         void handle();
     }
 
-    private List<CompleteListener> completeListeners = new CopyOnWriteArrayList<>();
+    public interface ForkedCompleteListener {
+        void handle(RunSpace forked);
+    }
+
+    private volatile List<CompleteListener> completeListeners;     // created by the first listener, forked spaces seldom have one
+
+    /**
+     * children forked together by forkAll share one counter rather than listen each of them
+     */
+    private static class ForkBatch {
+        private final AtomicInteger remaining;
+        private final ForkedCompleteListener eachComplete;
+        private final CompleteListener allComplete;
+
+        ForkBatch(int count, ForkedCompleteListener eachComplete, CompleteListener allComplete) {
+            this.remaining = new AtomicInteger(count);
+            this.eachComplete = eachComplete;
+            this.allComplete = allComplete;
+        }
+
+        void countDown(RunSpace forked) {
+            if (eachComplete != null) eachComplete.handle(forked);
+            if (remaining.decrementAndGet() == 0 && allComplete != null) allComplete.handle();
+        }
+    }
+
+    private volatile ForkBatch forkBatch;
 
     public AgoEngine getAgoEngine() {
         return agoEngine;
@@ -80,12 +147,29 @@ public class RunSpace implements Runnable{
     public RunSpace(AgoEngine agoEngine, RunSpaceHost runSpaceHost) {
         this.agoEngine = agoEngine;
         this.runSpaceHost = runSpaceHost;
+        MetricsSink metricsSink = agoEngine.getMetricsSink();
+        if (metricsSink != null) metricsSink.runSpaceCreated(this);
     }
 
     public RunSpaceHost getRunSpaceHost() {
         return runSpaceHost;
     }
 
+    /**
+     * @return the worker of host, i.e. an event loop, assigned by the host at first execution, null before that
+     * or if the host runs all RunSpaces in one worker
+     */
+    public Object getHomeWorker() {
+        return homeWorker;
+    }
+
+    /**
+     * set by the host, or to migrate this to another worker of the host
+     */
+    public void setHomeWorker(Object homeWorker) {
+        this.homeWorker = homeWorker;
+    }
+
     public void setCurrCallFrame(CallFrame<?> currCallFrame) {
         this.currCallFrame = currCallFrame;
     }
@@ -94,8 +178,87 @@ public class RunSpace implements Runnable{
         return this.currCallFrame;
     }
 
+    /**
+     * @return a recycled frame of the function, already reset, or null
+     */
+    public AgoFrame acquireFrame(AgoFunction agoFunction) {
+        AgoFrame frame = (AgoFrame) pollFrame(agoFunction);
+        if (frame != null) frame.reset();
+        return frame;
+    }
+
+    /**
+     * @return a recycled frame of the native function, already reset, or null
+     */
+    public NativeFrame acquireNativeFrame(AgoNativeFunction agoNativeFunction) {
+        NativeFrame frame = (NativeFrame) pollFrame(agoNativeFunction);
+        if (frame != null) frame.reset();
+        return frame;
+    }
+
+    private CallFrame<?> pollFrame(AgoFunction agoFunction) {
+        if (framePool == null) return null;
+        ArrayDeque<CallFrame<?>> frames = framePool.get(agoFunction);
+        return frames == null ? null : frames.pollLast();
+    }
+
+    /**
+     * the frame returned to caller and never escaped, an AgoFrame, or a NativeFrame finished inline
+     */
+    public void recycleFrame(CallFrame<?> frame) {
+        if (framePool == null) framePool = new IdentityHashMap<>();
+        ArrayDeque<CallFrame<?>> frames = framePool.computeIfAbsent(frame.getAgoClass(), k -> new ArrayDeque<>());
+        if (frames.size() < MAX_POOLED_FRAMES) frames.addLast(frame);
+    }
+
     public void addCompleteListener(CompleteListener listener){
-        completeListeners.add(listener);
+        List<CompleteListener> listeners = this.completeListeners;
+        if (listeners == null) {
+            synchronized (this.pausingParents) {
+                listeners = this.completeListeners;
+                if (listeners == null) this.completeListeners = listeners = new CopyOnWriteArrayList<>();
+            }
+        }
+        listeners.add(listener);
+    }
+
+    // the parent and the batch forked with, then listeners, a throwing listener or batch handler can't leave the parent waiting
+    private void notifyComplete() {
+        try {
+            if (this.parent != null) {
+                parent.removeForkedSpace(this);
+                parent.tryComplete();
+            }
+            ForkBatch batch = (ForkBatch) FORK_BATCH.getAndSet(this, null);      // count once even if interrupted after complete
+            if (batch != null) batch.countDown(this);
+        } finally {
+            List<CompleteListener> listeners = this.completeListeners;
+            if (listeners != null) {
+                for (CompleteListener completeListener : listeners) {
+                    completeListener.handle();
+                }
+            }
+        }
+    }
+
+    // the listener handled once, immediately if already finished
+    private void whenComplete(CompleteListener listener) {
+        AtomicBoolean handled = new AtomicBoolean();
+        CompleteListener once = () -> {
+            if (handled.compareAndSet(false, true)) listener.handle();
+        };
+        addCompleteListener(once);
+        if (RunningState.isFinish(this.getRunningState())) once.handle();
+    }
+
+    // result of this finished RunSpace to the RunSpace awaiting it
+    private void passResultTo(RunSpace awaiting) {
+        if (this.exception != null) {
+            awaiting.acceptExceptionByAsync(this.exception);
+        } else {
+            awaiting.resultSlots.copyFrom(this.resultSlots);
+            awaiting.resumeByAcceptResult();
+        }
     }
 
     // start or resume
@@ -106,19 +269,14 @@ public class RunSpace implements Runnable{
         if(this.currCallFrame != null)
             throw new IllegalStateException("already running");
 
-        if(this.parent != null){
-            this.addCompleteListener(()->{
-                parent.removeForkedSpace(this);
-                parent.tryComplete();
-            });
-        }
-
         this.setCurrCallFrame(frame);
         runSpaceHost.execute(this);    // see this.run()
     }
 
     protected void removeForkedSpace(RunSpace forkedRunSpace){
-        this.forkedSpaces.remove(forkedRunSpace);
+        if(this.forkedSpaces.remove(forkedRunSpace)) {
+            STATE.getAndAdd(this, -ONE_FORKED);
+        }
     }
 
     CompletableFuture<?> runningFuture;
@@ -135,42 +293,129 @@ public class RunSpace implements Runnable{
         return runningFuture;
     }
 
+    /**
+     * only one thread runs the RunSpace at a time. when it's executed again by host while running,
+     * i.e. resumed by an async result before the running thread leaves, the running thread submits it again after leaving
+     */
     @Override
     public void run() {
+        if (!enterExecuting()) return;
+        MetricsSink metricsSink = agoEngine.getMetricsSink();
+        long begin = metricsSink != null ? System.nanoTime() : 0;
+        try {
+            int timeSlice = agoEngine.getTimeSlice();
+            this.sliceLeft = timeSlice > 0 ? timeSlice : Integer.MAX_VALUE;
+            runFrames();
+        } finally {
+            if (metricsSink != null) {
+                long quantum = System.nanoTime() - begin;
+                this.runNanos += quantum;
+                metricsSink.ran(this, quantum);
+            }
+            boolean yielded = this.yielded;
+            this.yielded = false;
+            boolean again = leaveExecuting() | yielded;
+            completeInterrupted();      // interrupted while running, the listeners see the frames stopped
+            // a yielded RunSpace queues after the RunSpaces already waiting in host
+            if (again) runSpaceHost.execute(this);
+        }
+    }
+
+    protected void runFrames() {
         if (this.currCallFrame == null) {
             if (logger.isDebugEnabled()) logger.debug(this + " has no callframe, exit");
         } else {
             if (logger.isDebugEnabled()) logger.debug(this + " run callframe " + this.currCallFrame);
         }
 
-        this.setRunningState(RunningState.RUNNING);
-        while (this.currCallFrame != null && !RunningState.isPausingOrWaitingResult(this.getRunningState())) {
+        if (!startRunning()) return;
+        byte runningState;
+        while (this.currCallFrame != null && !this.yielded
+                && !RunningState.isPausingOrWaitingResult(runningState = this.getRunningState()) && runningState != RunningState.INTERRUPTED) {
             this.currCallFrame.run();
         }
+        if (this.currCallFrame == null) setFramesReturned();
         tryComplete();
     }
 
+    // false if another thread is in run(), it will submit this again
+    private boolean enterExecuting() {
+        long s;
+        do {
+            s = this.state;
+        } while (!STATE.compareAndSet(this, s, (s & EXECUTING) == 0 ? s | EXECUTING : s | RESCHEDULE));
+        return (s & EXECUTING) == 0;
+    }
+
+    // true if executed again while running
+    private boolean leaveExecuting() {
+        long s;
+        do {
+            s = this.state;
+        } while (!STATE.compareAndSet(this, s, s & ~(EXECUTING | RESCHEDULE)));
+        return (s & RESCHEDULE) != 0;
+    }
+
+    /**
+     * PENDING turns RUNNING, a RunSpace paused, waiting result or finished while queued in host doesn't run,
+     * the resume will execute it again
+     */
+    protected boolean startRunning() {
+        return transit(s -> s == RunningState.PENDING ? RunningState.RUNNING : s) == RunningState.PENDING
+                || this.getRunningState() == RunningState.RUNNING;
+    }
+
+    /**
+     * all frames returned, complete when forked spaces completed
+     */
+    protected void setFramesReturned() {
+        STATE.getAndBitwiseOr(this, RETURNED);
+    }
+
+    protected boolean isYielded() {
+        return yielded;
+    }
+
+    /**
+     * count a loop back-edge in current time slice
+     * @return false if the time slice used up, the frame should stop at the back-edge and call yieldSlice
+     */
+    public boolean tickBackEdge() {
+        if (--sliceLeft > 0) return true;
+        int timeSlice = agoEngine.getTimeSlice();
+        if (timeSlice > 0) return false;
+        sliceLeft = Integer.MAX_VALUE;     // time slice disabled at runtime
+        return true;
+    }
+
+    /**
+     * the current frame stopped at a back-edge, give the thread to other RunSpaces of the host,
+     * this RunSpace is executed again in host and the frame continues from where it stopped
+     */
+    public void yieldSlice() {
+        this.yielded = true;
+    }
+
+    /**
+     * called by the RunSpace when frames returned, and by forked spaces when they completed, only one of them completes it
+     */
     protected boolean tryComplete() {
-        if(this.getRunningState() == RunningState.RUNNING && this.forkedSpaces.isEmpty()){    // wait children complete
-            if(this.unhandledException != null)
-                this.setRunningState(RunningState.ERROR);
-            else
-                this.setRunningState(RunningState.DONE);
-
-            for (CompleteListener completeListener : this.completeListeners) {
-                completeListener.handle();
-            }
-            return true;
-        }
-        return false;
+        long s;
+        byte finished;
+        do {
+            s = this.state;
+            // wait frames return and forked spaces complete
+            if ((byte) s != RunningState.RUNNING || (s & RETURNED) == 0 || (s >>> 32) != 0) return false;
+            finished = this.unhandledException != null ? RunningState.ERROR : RunningState.DONE;
+        } while (!STATE.compareAndSet(this, s, (s & ~RUNNING_STATE_MASK) | finished));
+        stateChanged(RunningState.RUNNING, finished);
+
+        notifyComplete();
+        return true;
     }
 
     public void waitResult() {
-        if(this.getRunningState() == RunningState.PAUSE) {
-            this.setRunningState((byte) (this.getRunningState() | RunningState.WAITING_RESULT));
-        } else {
-            this.setRunningState(RunningState.WAITING_RESULT);
-        }
+        transit(s -> s == RunningState.PAUSE ? RunningState.PAUSE | RunningState.WAITING_RESULT : RunningState.WAITING_RESULT);
     }
 
     public void pause() {
@@ -180,10 +425,9 @@ public class RunSpace implements Runnable{
     protected void pauseByParent(RunSpace parent) {
         logger.info("pause " + this);
         synchronized (this.pausingParents) {
-            if (this.getRunningState() == RunningState.WAITING_RESULT) {
-                this.setRunningState((byte) (this.getRunningState() | RunningState.PAUSE));
-            } else if(this.getRunningState() == RunningState.RUNNING || this.getRunningState() == RunningState.PENDING){
-                this.setRunningState(RunningState.PAUSE);
+            byte from = transit(s -> s == RunningState.WAITING_RESULT ? s | RunningState.PAUSE
+                                        : s == RunningState.RUNNING || s == RunningState.PENDING ? RunningState.PAUSE : s);
+            if(from == RunningState.RUNNING || from == RunningState.PENDING){
                 if(this.currCallFrame != null) this.currCallFrame.setSuspended(true);
             }
             if(parent != null) addPausingParent(parent);
@@ -202,19 +446,30 @@ public class RunSpace implements Runnable{
         return pausingParents.remove(parent);
     }
 
+    /**
+     * stop the current frame, an async native frame runs its cancel hook, and interrupt the forked spaces.
+     * a finished RunSpace keeps its state, so interrupting is safe after it completed.
+     * if a thread is running the frames, it completes the RunSpace after leaving the run loop
+     */
     public void interrupt() {
-        if(this.currCallFrame != null){
-            if(this.currCallFrame instanceof AgoFrame agoFrame){
-                agoFrame.interrupt();
-            }   //TODO cannot stop native frame
-        }
-        this.setRunningState(RunningState.INTERRUPTED);
+        byte from = transit(s -> RunningState.isFinish((byte) s) ? s : RunningState.INTERRUPTED);
+        if (RunningState.isFinish(from)) return;
+        CallFrame<?> callFrame = this.currCallFrame;
+        if (callFrame != null) callFrame.interrupt();
         for (RunSpace forkedSpace : this.forkedSpaces) {
             forkedSpace.interrupt();
         }
-        for (CompleteListener completeListener : this.completeListeners) {
-            completeListener.handle();
-        }
+        completeInterrupted();
+    }
+
+    // notify once the RunSpace interrupted and no thread in run(), called by interrupt() and by the thread leaving run()
+    private void completeInterrupted() {
+        long s;
+        do {
+            s = this.state;
+            if ((byte) s != RunningState.INTERRUPTED || (s & (EXECUTING | NOTIFIED)) != 0) return;
+        } while (!STATE.compareAndSet(this, s, s | NOTIFIED));
+        notifyComplete();
     }
 
     public void resumeByParentResume(RunSpace parent){
@@ -223,12 +478,9 @@ public class RunSpace implements Runnable{
         if((this.getRunningState() & RunningState.PAUSE) == RunningState.PAUSE){
             synchronized (this.pausingParents) {
                 if (this.pausingParents.isEmpty()) {
-                    if (this.getRunningState() == RunningState.PAUSE) {  // only pause
-                        this.setRunningState(RunningState.RUNNING);
-                        runSpaceHost.execute(this);
-                    } else {
-                        this.setRunningState((byte) (this.getRunningState() & RunningState.DE_PAUSE_MASK));    // remove pause
-                    }
+                    // only pause to RUNNING, otherwise remove pause
+                    byte from = transit(s -> s == RunningState.PAUSE ? RunningState.RUNNING : s & RunningState.DE_PAUSE_MASK);
+                    if (from == RunningState.PAUSE) runSpaceHost.execute(this);
                 }
                 for (RunSpace childSpace : this.forkedSpaces) {
                     childSpace.resumeByParentResume(parent == null ? this : parent);
@@ -238,20 +490,17 @@ public class RunSpace implements Runnable{
     }
 
     public void resumeByAcceptResult(){
-        if ((this.getRunningState() & RunningState.WAITING_RESULT) == RunningState.WAITING_RESULT) {
-            if(this.getRunningState() == RunningState.WAITING_RESULT){
-                this.setRunningState(RunningState.RUNNING);   //TODO concurrent
-                runSpaceHost.execute(this);     // resume
-            } else {
-                this.setRunningState((byte) (this.getRunningState() & RunningState.DE_AWAIT_RESULT_MASK));    // only remove waiting result
-            }
-        }
+        // only waiting result to RUNNING, otherwise only remove waiting result
+        byte from = transit(s -> s == RunningState.WAITING_RESULT ? RunningState.RUNNING : s & RunningState.DE_AWAIT_RESULT_MASK);
+        if (from == RunningState.WAITING_RESULT) runSpaceHost.execute(this);     // resume
     }
 
     public void resume(){
         resumeByParentResume(null);
     }
 
+    // blocks the calling thread till the frame complete in a new RunSpace, it stalls the host if called in the thread of host,
+    // see invokeAsync
     public Object awaitTillComplete(CallFrame<?> frame){
         var space = agoEngine.createRunSpace(runSpaceHost);
         try {
@@ -268,6 +517,65 @@ public class RunSpace implements Runnable{
         return space.getResultSlots().getResultAsObject();
     }
 
+    /**
+     * run the frame in a new RunSpace on the calling thread and wait the result, for natives call back ago code,
+     * i.e. hashCode() and equals() of map keys. unlike awaitTillComplete it doesn't submit the new RunSpace to host,
+     * which may be the very thread blocked here. if the frame goes async, it's resumed in the thread delivers the result
+     */
+    public Object runTillComplete(CallFrame<?> frame){
+        var space = agoEngine.createRunSpace(new CallerRunsHost(runSpaceHost));
+        try {
+            frame.setRunSpace(space);
+            space.startAsync(frame).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+        if(space.unhandledException instanceof RuntimeException r){
+            throw r;
+        } else if(space.unhandledException != null){
+            throw new RuntimeException(space.unhandledException);
+        }
+        return space.getResultSlots().getResultAsObject();
+    }
+
+    // executes RunSpace in the thread calls execute, timers are set by the original host
+    private record CallerRunsHost(RunSpaceHost timerHost) implements RunSpaceHost {
+        @Override
+        public void execute(RunSpace runSpace) {
+            runSpace.run();
+        }
+
+        @Override
+        public Object setTimer(long delay, Runnable handler) {
+            return timerHost.setTimer(delay, handler);
+        }
+
+        @Override
+        public TimerWheel.Timeout newTimeout(long delay, Runnable handler) {
+            return timerHost.newTimeout(delay, handler);
+        }
+    }
+
+    /**
+     * run the frame in a new RunSpace like awaitTillComplete, but the calling thread isn't blocked,
+     * it's safe to call in the thread of host
+     * @return completes with the result, or exceptionally with the unhandled exception of the new RunSpace
+     */
+    public CompletableFuture<Object> invokeAsync(CallFrame<?> frame){
+        var space = agoEngine.createRunSpace(runSpaceHost);
+        var result = new CompletableFuture<>();
+        space.addCompleteListener(() -> {
+            if (space.unhandledException != null) {
+                result.completeExceptionally(space.unhandledException);
+            } else {
+                result.complete(space.getResultSlots().getResultAsObject());
+            }
+        });
+        frame.setRunSpace(space);
+        space.startAsync(frame);
+        return result;
+    }
+
     public void fork(CallFrame<?> frame) {
         fork(frame, null);
     }
@@ -284,13 +592,56 @@ public class RunSpace implements Runnable{
         var space = createChildRunSpace(forkContext);
         frame.setRunSpace(space);
         space.start(new EntranceCallFrame<>(frame));
-        if(forkContext != null){
-            logger.info(this + " fork " + space + " via " + forkContext + ", got " + forkedSpaces.size());
-        } else {
-            logger.info(this + " fork " + space + ", got " + forkedSpaces.size());
+        if(logger.isDebugEnabled()){
+            if(forkContext != null){
+                logger.debug(this + " fork " + space + " via " + forkContext + ", got " + forkedSpaces.size());
+            } else {
+                logger.debug(this + " fork " + space + ", got " + forkedSpaces.size());
+            }
         }
     }
 
+    /**
+     * fork the frames in one shot, the forked count of state word is added once,
+     * and the children count down a shared counter rather than each registers a complete listener
+     * @param allComplete handled when all the children completed, immediately if no frame, can be null
+     * @return the forked spaces, in order of frames
+     */
+    public RunSpace[] forkAll(CallFrame<?>[] frames, CompleteListener allComplete) {
+        return forkAll(frames, null, allComplete);
+    }
+
+    /**
+     * @param eachComplete handled when a child completed, before allComplete, can be null
+     */
+    public RunSpace[] forkAll(CallFrame<?>[] frames, ForkedCompleteListener eachComplete, CompleteListener allComplete) {
+        var spaces = new RunSpace[frames.length];
+        if (frames.length == 0) {
+            if (allComplete != null) allComplete.handle();
+            return spaces;
+        }
+        var batch = new ForkBatch(frames.length, eachComplete, allComplete);
+        for (int i = 0; i < frames.length; i++) {
+            var space = agoEngine.createRunSpace(runSpaceHost);
+            space.setParent(this);
+            space.forkBatch = batch;
+            this.forkedSpaces.add(space);
+            frames[i].setRunSpace(space);
+            spaces[i] = space;
+        }
+        STATE.getAndAdd(this, ONE_FORKED * frames.length);
+        for (int i = 0; i < frames.length; i++) {
+            spaces[i].start(new EntranceCallFrame<>(frames[i]));
+        }
+        if (logger.isDebugEnabled()) logger.debug(this + " fork " + frames.length + " spaces, got " + forkedSpaces.size());
+        return spaces;
+    }
+
+    // spawn them like spawn(frame, null) does
+    public RunSpace[] spawnAll(CallFrame<?>[] frames, CompleteListener allComplete) {
+        return this.parent != null ? this.parent.forkAll(frames, allComplete) : this.forkAll(frames, allComplete);
+    }
+
     // spawn semantic as below:
     //      for child runspace, it redirects parent to fork, otherwise fork as its child
     public void spawn(CallFrame<?> frame, ForkContext forkContext) {
@@ -302,6 +653,12 @@ public class RunSpace implements Runnable{
     }
 
     public void await(CallFrame<?> frame, ForkContext forkContext) {
+        if (frame.getRunSpace() instanceof RunSpace forked && forked != this && forked.getParent() == this) {
+            // the frame forked by this, await its RunSpace rather than run the frame again
+            this.waitResult();
+            forked.whenComplete(() -> forked.passResultTo(this));
+            return;
+        }
         var space = createChildRunSpace(forkContext);
         frame.setRunSpace(space);
         space.start(new AsyncEntranceCallFrame<>(frame));
@@ -310,7 +667,9 @@ public class RunSpace implements Runnable{
 
     public RunSpace createChildRunSpace(ForkContext forkContext) {
         var space = agoEngine.createRunSpace(runSpaceHost);
-        this.forkedSpaces.add(space);
+        if (this.forkedSpaces.add(space)) {
+            STATE.getAndAdd(this, ONE_FORKED);
+        }
         space.setParent(this);
         return space;
     }
@@ -460,9 +819,12 @@ public class RunSpace implements Runnable{
     public void acceptException(Instance<?> exception, CallFrame<?> caller) {
         this.setException(exception);
         if(caller == null) {
-            this.setRunningState(RunningState.ERROR);
+            var unhandled = new UnhandledException(getAgoEngine(), exception);
+            this.unhandledException = unhandled;
             this.setCurrCallFrame(null);
-            throw new UnhandledException(getAgoEngine(), exception);
+            setFramesReturned();
+            tryComplete();      // completes as ERROR, the awaiting side needn't wait another execution
+            throw unhandled;
         }
 
         if(caller.handleException(exception)){
@@ -475,13 +837,16 @@ public class RunSpace implements Runnable{
 
     public void acceptExceptionByAsync(Instance<?> exception) {
         this.setException(exception);
+        // no longer waiting, so the frame handling it runs when started below or by acceptException of outer frames
+        transit(s -> s == RunningState.WAITING_RESULT ? RunningState.RUNNING : s & RunningState.DE_AWAIT_RESULT_MASK);
         var caller = this.currCallFrame;
         if (caller.handleException(exception)) {
             this.setCurrCallFrame(null);
             start(caller);
             return;
         }
-        throw new UnhandledException(getAgoEngine(), exception);
+        // otherwise thrown out to the callers, unhandled if it reached none
+        if (this.currCallFrame == caller) throw new UnhandledException(getAgoEngine(), exception);
     }
 
     protected void setException(Instance<?> exception) {
@@ -501,11 +866,91 @@ public class RunSpace implements Runnable{
     }
 
     public byte getRunningState() {
-        return runningState;
+        return (byte) this.state;
     }
 
     public void setRunningState(byte runningState) {
-        this.runningState = runningState;
+        transit(s -> runningState);
+    }
+
+    /**
+     * CAS the running state in state word, other bits kept
+     * @param next maps the current running state to the next, returns the same to keep it
+     * @return the running state before transition
+     */
+    protected byte transit(IntUnaryOperator next) {
+        long s;
+        byte from, to;
+        do {
+            s = this.state;
+            from = (byte) s;
+            to = (byte) next.applyAsInt(from);
+            if (to == from) return from;
+        } while (!STATE.compareAndSet(this, s, (s & ~RUNNING_STATE_MASK) | (to & RUNNING_STATE_MASK)));
+        stateChanged(from, to);
+        return from;
+    }
+
+    private void stateChanged(byte from, byte to) {
+        MetricsSink metricsSink = agoEngine.getMetricsSink();
+        if (metricsSink != null) {
+            boolean wasWaiting = (from & RunningState.WAITING_RESULT) != 0, waiting = (to & RunningState.WAITING_RESULT) != 0;
+            if (!wasWaiting && waiting) {
+                this.waitingSince = System.nanoTime();
+            } else if (wasWaiting && !waiting && this.waitingSince != 0) {
+                metricsSink.waited(this, System.nanoTime() - this.waitingSince);
+                this.waitingSince = 0;
+            }
+            metricsSink.runningStateChanged(this, from, to);
+        }
+        runningStateChanged(from, to);
+    }
+
+    /**
+     * after the running state changed by a transition
+     */
+    protected void runningStateChanged(byte from, byte to) {
+    }
+
+    /**
+     * nanos spent in host by this RunSpace, only counted while the engine has a MetricsSink
+     */
+    public long getRunNanos() {
+        return runNanos;
+    }
+
+    public record Snapshot(String name, byte runningState, String currentFrame, long runNanos, List<Snapshot> forked) {
+        /**
+         * @return this and all the forked descendants
+         */
+        public int size() {
+            int size = 1;
+            for (Snapshot snapshot : forked) {
+                size += snapshot.size();
+            }
+            return size;
+        }
+    }
+
+    /**
+     * the RunSpace and its forked spaces, taken while they are running, so it's not an atomic view
+     */
+    public Snapshot snapshot() {
+        var forked = new ArrayList<Snapshot>(this.forkedSpaces.size());
+        for (RunSpace forkedSpace : this.forkedSpaces) {
+            forked.add(forkedSpace.snapshot());
+        }
+        CallFrame<?> callFrame = this.currCallFrame;
+        return new Snapshot(this.toString(), this.getRunningState(), callFrame == null ? null : callFrame.toString(), this.runNanos, forked);
+    }
+
+    /**
+     * set state word for a RunSpace restored from storage, after forked spaces and current frame restored
+     */
+    protected void restoreState(byte runningState) {
+        long s = (runningState & RUNNING_STATE_MASK) | ((long) this.forkedSpaces.size() << 32);
+        if (this.currCallFrame == null) s |= RETURNED;
+        this.state = s;
     }
 
 }
@@ -23,4 +23,14 @@ public interface RunSpaceHost {
 
     Object setTimer(long delay, Runnable handler);
 
+    // timer of sleep and RunSpace.withTimeout, the handler runs in timer thread, see TimerWheel
+    default TimerWheel.Timeout newTimeout(long delay, Runnable handler) {
+        return TimerWheel.getDefault().newTimeout(delay, handler);
+    }
+
+    // tasks queued and not started yet, for metrics, -1 if unknown
+    default long getPendingTasks() {
+        return -1;
+    }
+
 }
@@ -0,0 +1,291 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * counts RunSpaces by running state, histograms of run quantum and wait time, and keeps live RunSpaces for snapshot.
+ * set it by AgoEngine.setMetricsSink, and read it directly or from JMX after registerMBean.
+ * the counters are LongAdders, cheap to write from many threads; the histograms have power of 2 buckets of nanos.
+ */
+public class RunSpaceMetrics implements MetricsSink, RunSpaceMetricsMXBean {
+
+    private final RunSpaceHost runSpaceHost;
+
+    private final LongAdder pending = new LongAdder();
+    private final LongAdder running = new LongAdder();
+    private final LongAdder waiting = new LongAdder();
+    private final LongAdder paused = new LongAdder();
+
+    private final LongAdder done = new LongAdder();
+    private final LongAdder error = new LongAdder();
+    private final LongAdder interrupted = new LongAdder();
+
+    private final Histogram runQuantum = new Histogram();
+    private final Histogram waitTime = new Histogram();
+
+    private final Set<RunSpace> liveSpaces = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param runSpaceHost for queued tasks, can be null
+     */
+    public RunSpaceMetrics(RunSpaceHost runSpaceHost) {
+        this.runSpaceHost = runSpaceHost;
+    }
+
+    @Override
+    public void runSpaceCreated(RunSpace runSpace) {
+        pending.increment();
+        liveSpaces.add(runSpace);
+    }
+
+    @Override
+    public void runningStateChanged(RunSpace runSpace, byte from, byte to) {
+        LongAdder fromGauge = gaugeOf(from);
+        if (fromGauge != null) fromGauge.decrement();
+        LongAdder toGauge = gaugeOf(to);
+        if (toGauge != null) toGauge.increment();
+
+        if (RunSpace.RunningState.isFinish(to) && !RunSpace.RunningState.isFinish(from)) {
+            liveSpaces.remove(runSpace);
+            if ((to & RunSpace.RunningState.ERROR) != 0) {
+                error.increment();
+            } else if ((to & RunSpace.RunningState.INTERRUPTED) != 0) {
+                interrupted.increment();
+            } else {
+                done.increment();
+            }
+        }
+    }
+
+    // pause precedes waiting result, null for the finished
+    private LongAdder gaugeOf(byte runningState) {
+        if (RunSpace.RunningState.isFinish(runningState)) return null;
+        if ((runningState & RunSpace.RunningState.PAUSE) != 0) return paused;
+        if ((runningState & RunSpace.RunningState.WAITING_RESULT) != 0) return waiting;
+        if (runningState == RunSpace.RunningState.RUNNING) return running;
+        if (runningState == RunSpace.RunningState.PENDING) return pending;
+        return null;
+    }
+
+    @Override
+    public void ran(RunSpace runSpace, long nanos) {
+        runQuantum.record(nanos);
+    }
+
+    @Override
+    public void waited(RunSpace runSpace, long nanos) {
+        waitTime.record(nanos);
+    }
+
+    /**
+     * snapshots of live RunSpaces without parent, with their fork trees
+     */
+    public List<RunSpace.Snapshot> snapshot() {
+        var result = new ArrayList<RunSpace.Snapshot>();
+        for (RunSpace runSpace : liveSpaces) {
+            if (runSpace.getParent() == null) result.add(runSpace.snapshot());
+        }
+        return result;
+    }
+
+    public int getLiveCount() {
+        return liveSpaces.size();
+    }
+
+    public ObjectName registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName(name);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    @Override
+    public long getPendingCount() {
+        return pending.sum();
+    }
+
+    @Override
+    public long getRunningCount() {
+        return running.sum();
+    }
+
+    @Override
+    public long getWaitingCount() {
+        return waiting.sum();
+    }
+
+    @Override
+    public long getPausedCount() {
+        return paused.sum();
+    }
+
+    @Override
+    public long getDoneCount() {
+        return done.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return error.sum();
+    }
+
+    @Override
+    public long getInterruptedCount() {
+        return interrupted.sum();
+    }
+
+    @Override
+    public long getHostPendingTasks() {
+        return runSpaceHost == null ? -1 : runSpaceHost.getPendingTasks();
+    }
+
+    @Override
+    public long getRunQuantumCount() {
+        return runQuantum.count();
+    }
+
+    @Override
+    public long getRunQuantumMeanNanos() {
+        return runQuantum.mean();
+    }
+
+    @Override
+    public long getRunQuantumP99Nanos() {
+        return runQuantum.percentile(0.99);
+    }
+
+    @Override
+    public long getWaitCount() {
+        return waitTime.count();
+    }
+
+    @Override
+    public long getWaitMeanNanos() {
+        return waitTime.mean();
+    }
+
+    @Override
+    public long getWaitP99Nanos() {
+        return waitTime.percentile(0.99);
+    }
+
+    public Histogram getRunQuantum() {
+        return runQuantum;
+    }
+
+    public Histogram getWaitTime() {
+        return waitTime;
+    }
+
+    @Override
+    public String[] getRunSpaceTree() {
+        var lines = new ArrayList<String>();
+        for (RunSpace.Snapshot snapshot : snapshot()) {
+            appendTree(lines, snapshot, 0);
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    private static void appendTree(List<String> lines, RunSpace.Snapshot snapshot, int depth) {
+        lines.add("  ".repeat(depth) + snapshot.name() + " state=" + snapshot.runningState()
+                + " frame=" + snapshot.currentFrame() + " runNanos=" + snapshot.runNanos());
+        for (RunSpace.Snapshot forked : snapshot.forked()) {
+            appendTree(lines, forked, depth + 1);
+        }
+    }
+
+    /**
+     * clear histograms and finished counters, the gauges of live RunSpaces are kept
+     */
+    @Override
+    public void reset() {
+        done.reset();
+        error.reset();
+        interrupted.reset();
+        runQuantum.reset();
+        waitTime.reset();
+    }
+
+    /**
+     * bucket i counts values in [2^i, 2^(i+1)), bucket 0 also counts 0
+     */
+    public static class Histogram {
+        private final LongAdder[] buckets = new LongAdder[64];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+
+        public Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void record(long value) {
+            if (value < 0) value = 0;
+            buckets[value == 0 ? 0 : 63 - Long.numberOfLeadingZeros(value)].increment();
+            count.increment();
+            sum.add(value);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long mean() {
+            long n = count.sum();
+            return n == 0 ? 0 : sum.sum() / n;
+        }
+
+        /**
+         * @return upper bound of the bucket where the percentile falls in
+         */
+        public long percentile(double p) {
+            long n = count.sum();
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(n * p);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i].sum();
+                if (seen >= rank) return i == 63 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+            return Long.MAX_VALUE;
+        }
+
+        public long[] bucketCounts() {
+            long[] counts = new long[buckets.length];
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+            }
+            return counts;
+        }
+
+        public void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            count.reset();
+            sum.reset();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago;
+
+/**
+ * the JMX view of RunSpaceMetrics
+ */
+public interface RunSpaceMetricsMXBean {
+
+    long getPendingCount();
+
+    long getRunningCount();
+
+    long getWaitingCount();
+
+    long getPausedCount();
+
+    long getDoneCount();
+
+    long getErrorCount();
+
+    long getInterruptedCount();
+
+    /**
+     * tasks queued in the RunSpaceHost, -1 if the host cannot tell
+     */
+    long getHostPendingTasks();
+
+    long getRunQuantumCount();
+
+    long getRunQuantumMeanNanos();
+
+    long getRunQuantumP99Nanos();
+
+    long getWaitCount();
+
+    long getWaitMeanNanos();
+
+    long getWaitP99Nanos();
+
+    /**
+     * live RunSpaces without parent, each line a RunSpace indented by its depth in the fork tree
+     */
+    String[] getRunSpaceTree();
+
+    void reset();
+}
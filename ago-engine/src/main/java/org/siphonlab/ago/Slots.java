@@ -156,6 +156,9 @@ public interface Slots {
 
     default Object getVoid(int slot){return null;}
 
+    // reset all slots to default value, for recycled frame
+    void clear();
+
     default void setVoid(int slot, Object value){return;}
 }
 
@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * ancestors of each class as a bitset of class id, built after classes loaded.
+ * it follows the paths of AgoClass.asThatOrSuperOfThat: super class, permit class of interface and trait,
+ * parameterized base class, and implemented interfaces which only count when the expected class is interface or trait.
+ * so `a.isThatOrSuperOfThat(b)` is a bit test when a is a plain class, i.e. not generic instantiation, parameterized or array;
+ * the others go to AgoClass.asThatOrSuperOfThat and cached by pair.
+ */
+public class SubtypeDisplay {
+
+    public static void build(List<AgoClass> classes) {
+        for (AgoClass agoClass : classes) {
+            BitSet classDisplay = collect(agoClass, classes, false);
+            BitSet interfaceDisplay = classDisplay == null ? null : collect(agoClass, classes, true);
+            agoClass.setSubtypeDisplay(classDisplay, interfaceDisplay, isPlain(agoClass));
+        }
+    }
+
+    private static boolean isPlain(AgoClass agoClass) {
+        ConcreteTypeInfo concreteTypeInfo = agoClass.getConcreteTypeInfo();
+        // interfaces and traits have no super class, still plain
+        boolean hasSuperClass = agoClass.getSuperClass() != null
+                || agoClass.getType() == AgoClass.TYPE_INTERFACE || agoClass.getType() == AgoClass.TYPE_TRAIT;
+        return hasSuperClass && !agoClass.isGenericInstantiation()
+                && !(concreteTypeInfo instanceof ParameterizedClassInfo) && !(concreteTypeInfo instanceof ArrayInfo);
+    }
+
+    // null if some ancestor not in `classes`
+    private static BitSet collect(AgoClass agoClass, List<AgoClass> classes, boolean withInterfaces) {
+        BitSet display = new BitSet(classes.size());
+        ArrayDeque<AgoClass> toVisit = new ArrayDeque<>();
+        toVisit.add(agoClass);
+        while (!toVisit.isEmpty()) {
+            AgoClass c = toVisit.poll();
+            int id = c.getClassId();
+            if (id < 0 || id >= classes.size() || !classes.get(id).equals(c)) return null;
+            if (display.get(id)) continue;
+            display.set(id);
+
+            if (c.getConcreteTypeInfo() instanceof ParameterizedClassInfo p) {
+                toVisit.add(p.getParameterizedBaseClass());
+                continue;
+            }
+            AgoClass superClass = c.getSuperClass();
+            if (superClass != null && superClass != c) toVisit.add(superClass);
+            if (c.getType() == AgoClass.TYPE_INTERFACE || c.getType() == AgoClass.TYPE_TRAIT) {
+                if (c.getPermitClass() != null) toVisit.add(c.getPermitClass());
+            }
+            if (withInterfaces && c.getInterfaces() != null) {
+                for (AgoClass implementedInterface : c.getInterfaces()) {
+                    toVisit.add(implementedInterface);
+                }
+            }
+        }
+        return display;
+    }
+}
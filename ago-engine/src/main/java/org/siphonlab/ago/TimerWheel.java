@@ -0,0 +1,249 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * hashed timer wheel for sleep and timeout of RunSpaces.
+ * a timeout is hashed into the bucket of its deadline tick, with the rounds of wheel it must wait,
+ * the worker thread expires one bucket per tick.
+ * newTimeout and cancel only enqueue, the worker moves timeouts into and out of buckets, so both are O(1),
+ * and a cancelled timeout leaves the wheel at next tick, memory is bounded by the live timeouts.
+ * the worker parks while there is no timeout.
+ * handlers run in the worker thread, they should only hand over to RunSpaceHost, like NativeFrame.finishVoidAsync does.
+ */
+public class TimerWheel {
+
+    private final static Logger logger = LoggerFactory.getLogger(TimerWheel.class);
+
+    private static class DefaultHolder {
+        static final TimerWheel DEFAULT = new TimerWheel();
+    }
+
+    public static TimerWheel getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong liveTimeouts = new AtomicLong();
+
+    private final Thread worker;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile long startTime;
+
+    // accessed by worker only
+    private long tick;
+
+    public TimerWheel() {
+        this(1, 1024, r -> {
+            Thread thread = new Thread(r, "ago-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param tickMillis precision of timeouts
+     * @param wheelSize buckets of wheel, rounded up to power of 2, timeouts within one round needn't count rounds
+     */
+    public TimerWheel(long tickMillis, int wheelSize, ThreadFactory threadFactory) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive");
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) throw new IllegalArgumentException("illegal wheelSize " + wheelSize);
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) size <<= 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.worker = threadFactory.newThread(this::work);
+    }
+
+    /**
+     * @param delay milliseconds
+     * @param handler runs in worker thread when expired
+     * @return cancel it when the awaited thing finished first
+     */
+    public Timeout newTimeout(long delay, Runnable handler) {
+        if (started.compareAndSet(false, true)) {
+            startTime = System.nanoTime();
+            worker.start();
+        }
+        long deadline = System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(delay, 0));
+        Timeout timeout = new Timeout(this, handler, deadline);
+        pendingTimeouts.add(timeout);
+        if (liveTimeouts.getAndIncrement() == 0) LockSupport.unpark(worker);
+        return timeout;
+    }
+
+    public long getLiveTimeouts() {
+        return liveTimeouts.get();
+    }
+
+    private void work() {
+        while (true) {
+            if (liveTimeouts.get() == 0) {
+                LockSupport.park(this);
+                tick = Math.max(tick, (System.nanoTime() - startTime) / tickNanos);     // all buckets empty, skip idle ticks
+                continue;
+            }
+            long now = waitForNextTick();
+            removeCancelled();
+            transferPending();
+            wheel[(int) (tick & mask)].expire(now);
+            tick++;
+        }
+    }
+
+    // nanos since start when the current tick passed
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startTime;
+            if (now >= deadline) return now;
+            LockSupport.parkNanos(this, deadline - now);
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {       // otherwise still pending, dropped by transferPending
+                timeout.bucket.remove(timeout);
+                liveTimeouts.decrementAndGet();
+            }
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.state.get() == Timeout.CANCELLED) {
+                liveTimeouts.decrementAndGet();
+                continue;
+            }
+            long deadlineTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+            wheel[(int) (Math.max(deadlineTick, tick) & mask)].add(timeout);       // the past deadline expires at this tick
+        }
+    }
+
+    private class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev != null) timeout.prev.next = timeout.next;
+            if (timeout.next != null) timeout.next.prev = timeout.prev;
+            if (timeout == head) head = timeout.next;
+            if (timeout == tail) tail = timeout.prev;
+            timeout.prev = timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        void expire(long now) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= now) {
+                    remove(timeout);
+                    liveTimeouts.decrementAndGet();
+                    timeout.expire();
+                } else if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+    }
+
+    public static class Timeout {
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final TimerWheel timerWheel;
+        private final Runnable handler;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(INIT);
+
+        // accessed by worker only
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimerWheel timerWheel, Runnable handler, long deadline) {
+            this.timerWheel = timerWheel;
+            this.handler = handler;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return false if already expired or cancelled
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED)) return false;
+            timerWheel.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(INIT, EXPIRED)) return;
+            try {
+                handler.run();
+            } catch (Throwable e) {
+                logger.warn("A timeout handler raised an exception.", e);
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.mina.core.buffer.IoBuffer;
 import org.siphonlab.ago.*;
 import org.siphonlab.ago.native_.*;
+import org.siphonlab.ago.opcode.Predecoded;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -140,6 +141,7 @@ public class AgoClassLoader implements ClassManager{
         for(var i=0; i<classes.size(); i++){
             assert i == headers.get(classes.get(i).getFullname()).getClassId();
         }
+        SubtypeDisplay.build(classes);
     }
 
     void processStage(LoadingStage stage){
@@ -620,6 +622,16 @@ public class AgoClassLoader implements ClassManager{
             header.compiledCode = buffer.getSlice(length);
             if(length > 0){
                 header.sourceMap = readSourceMap(buffer, header.sourceFilename);
+                // escape analysis, absent in class files compiled before it, then analyze the code when building the function
+                if(buffer.hasRemaining()) {
+                    header.frameEscaped = buffer.get() != 0;
+                    int localInvokeCount = buffer.getInt();
+                    int[] localInvokes = new int[localInvokeCount];
+                    for (int i = 0; i < localInvokeCount; i++) {
+                        localInvokes[i] = buffer.getInt();
+                    }
+                    header.localInvokes = localInvokes;
+                }
             }
         }
         header.setBodyParsed(true);
@@ -691,6 +703,10 @@ public class AgoClassLoader implements ClassManager{
                 header.compiledCode.duplicate().asIntBuffer().get(arr);
                 agoFunction.setCode(arr);
             }
+            agoFunction.setDecodedCode(Predecoded.decode(agoFunction.getCode(), header.localInvokes));
+            agoFunction.setInlineCaches(InterfaceInlineCache.allocate(agoFunction.getCode()));
+            boolean frameEscaped = header.frameEscaped != null ? header.frameEscaped : FrameEscapeAnalyzer.isFrameEscaped(agoFunction.getCode());
+            agoFunction.setFrameRecyclable(!(agoFunction instanceof AgoNativeFunction) && !frameEscaped);
             agoFunction.setSourceMap(header.sourceMap);
             // switch table
             if(header.switchTables != null && header.switchTables.length > 0) {
@@ -749,6 +765,9 @@ public class AgoClassLoader implements ClassManager{
         if(cloner instanceof AgoFunction clonerFun){
             AgoFunction sourceFun = (AgoFunction) source;
             clonerFun.setCode(sourceFun.getCode());
+            clonerFun.setDecodedCode(sourceFun.getDecodedCode());
+            clonerFun.setFrameRecyclable(sourceFun.isFrameRecyclable());
+            clonerFun.setInlineCaches(sourceFun.getInlineCaches());
             clonerFun.setSourceMap(sourceFun.getSourceMap());
             clonerFun.setSwitchTables(sourceFun.getSwitchTables());
             clonerFun.setTryCatchItems(sourceFun.getTryCatchItems());
@@ -981,6 +1000,9 @@ public class AgoClassLoader implements ClassManager{
             header.collectMethods(headers);
             header.setConcreteTypeInfo(headers);
         }
+        for (ClassHeader header : headers.values()) {
+            header.collectLateMethods(headers);
+        }
 
         for (ClassHeader header : headers.values()) {
             header.buildInterfaceMethodMap(headers);
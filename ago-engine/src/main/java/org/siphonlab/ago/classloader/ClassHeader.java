@@ -65,6 +65,7 @@ public class ClassHeader {
     // function name -> id, not full name
     Map<String, Integer> nonPrivateFunctionIndexes = new HashMap<>();
     Map<String, MethodDesc> methodsByName = new HashMap<>();
+    private List<MethodDesc> lateMethods;     // see collectLateMethods
 
     GenericTypeDesc[] genericTypeParamDescs;
 
@@ -81,6 +82,8 @@ public class ClassHeader {
 
     IoBuffer compiledCode;
     SourceMapEntry[] sourceMap;
+    Boolean frameEscaped;       // null if the class file compiled before escape analysis, see FrameEscapeAnalyzer
+    int[] localInvokes;
 
     protected IntSortedArraySet handledInstructions = new IntSortedArraySet();
     private boolean bodyParsed = false;
@@ -390,6 +393,50 @@ public class ClassHeader {
         if(this.methods == null) this.methods = new ArrayList<>();
         this.methods.add(methodDesc);
         this.methodsByName.put(methodDesc.getName(), methodDesc);
+        if(this.loadingStage.getValue() > CollectMethods.getValue()){
+            // this loaded by an earlier loadClasses, i.e. lang package, and instantiated by the classes loading now
+            if(this.lateMethods == null) this.lateMethods = new ArrayList<>();
+            this.lateMethods.add(methodDesc);
+        }
+    }
+
+    /**
+     * the function instantiations registered after methods of this collected take indexes after the methods of
+     * this and its subclasses, and are put into their method tables
+     */
+    void collectLateMethods(Map<String, ClassHeader> headers){
+        if(this.lateMethods == null) return;
+
+        List<ClassHeader> family = new ArrayList<>();
+        for (ClassHeader header : headers.values()) {
+            if(header.agoClass != null && header.isThisOrSubclassOf(this, headers)) family.add(header);
+        }
+        int index = 0;
+        for (ClassHeader header : family) {
+            AgoFunction[] methods = header.agoClass.getMethods();
+            if(methods != null) index = Math.max(index, methods.length);
+        }
+        for (MethodDesc methodDesc : this.lateMethods) {
+            methodDesc.setMethodIndex(index++);
+        }
+        for (ClassHeader header : family) {
+            AgoFunction[] methods = header.agoClass.getMethods();
+            methods = methods == null ? new AgoFunction[index] : Arrays.copyOf(methods, index);
+            for (MethodDesc methodDesc : this.lateMethods) {
+                methods[methodDesc.getMethodIndex()] = (AgoFunction) this.findMethod(methodDesc, headers).agoClass;
+            }
+            header.agoClass.setMethods(methods);
+        }
+        this.lateMethods = null;
+    }
+
+    private boolean isThisOrSubclassOf(ClassHeader header, Map<String, ClassHeader> headers){
+        for (ClassHeader c = this; c != null; ) {
+            if(c == header) return true;
+            if(c.superClass == null || c.superClass.equals(c.fullname)) return false;
+            c = headers.get(c.superClass);
+        }
+        return false;
     }
 
     void instantiateFunctionFamily(ClassHeader parent, ClassHeader instantiationOfThis, int depth, Map<String, ClassHeader> headers, GenericTypeArguments typeArguments) {
@@ -966,6 +1013,8 @@ public class ClassHeader {
                     this.compiledCode = applied.rewind();
                 }
                 this.sourceMap = template.sourceMap;
+                this.frameEscaped = template.frameEscaped;
+                this.localInvokes = template.localInvokes;
             }
         }
         this.setLoadingStage(BuildClass);
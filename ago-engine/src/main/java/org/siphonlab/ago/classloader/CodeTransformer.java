@@ -105,7 +105,7 @@ public class CodeTransformer {
         assert clazz.getMethod(p) == method.agoClass;
         if(method.isInGenericTemplate(headers) && this.header.genericSource != null){
             method = method.resolveTemplateInstantiation(headers, this.header.genericSource.typeArguments());
-            p = methodDesc.getMethodIndex();
+            p = methodClass.findMethod(method.getName(), headers).getMethodIndex();
             assert clazz.getMethod(p).getName().equals(method.agoClass.getName());
         }
         assert p != -1;
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.classloader;
+
+import org.siphonlab.ago.opcode.*;
+
+/**
+ * find whether a function body may let its CallFrame escape.
+ * the frame escapes when it was loaded as instance (`fun.this`), became parent scope of inner class or lambda,
+ * suspended (pause, await), forks/spawns, or handles exception.
+ * the compiler writes the result into class file, AgoClassLoader runs it for class files compiled before that.
+ * a frame not escaped can be recycled after it returned, see RunSpace.recycleFrame
+ */
+public class FrameEscapeAnalyzer {
+
+    public static boolean isFrameEscaped(int[] code) {
+        if (code == null) return true;
+        for (int pc = 0; pc < code.length; pc += 1 + (code[pc] & OpCode.SIZE_MASK)) {
+            int instruction = code[pc];
+            switch (instruction >> 24) {
+                case Load.OP:
+                    if (instruction == Load.loadscope_vc && code[pc + 2] == 0) return true;
+                    if (instruction == Load.bindcls_scope_vCc && code[pc + 3] == 0) return true;
+                    break;
+                case New.OP:
+                    switch (instruction) {
+                        case New.new_scope_child_vcC:
+                        case New.new_scope_method_vcCm:
+                        case New.new_scope_method_fix_vcCm:
+                        case New.newn_scope_child_vcC:
+                            if (code[pc + 2] == 0) return true;
+                    }
+                    break;
+                case Invoke.OP:
+                    if (instruction != Invoke.invoke_v) return true;
+                    break;
+                case Pause.OP:
+                case TryCatch.OP:
+                    return true;
+            }
+        }
+        return false;
+    }
+}
@@ -135,6 +135,8 @@ public class ParameterizedClassHeader extends ClassHeader {
         if (this.isFunction()){
             this.compiledCode = base.compiledCode.slice();
             this.sourceMap = base.sourceMap;
+            this.frameEscaped = base.frameEscaped;
+            this.localInvokes = base.localInvokes;
         }
         this.setLoadingStage(BuildClass);
         return true;
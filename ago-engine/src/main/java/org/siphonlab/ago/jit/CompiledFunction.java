@@ -0,0 +1,32 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.jit;
+
+import org.siphonlab.ago.AgoFrame;
+import org.siphonlab.ago.Slots;
+
+/**
+ * jvm class generated from the int[] code of an AgoFunction
+ */
+public abstract class CompiledFunction {
+
+    /**
+     * run the compiled code from entry pc, entry must be 0 or a jump target, otherwise nothing evaluated
+     * @return the pc where interpreter should continue, code.length if the code ran to its end
+     */
+    public abstract int run(AgoFrame frame, Slots slots, int entry);
+
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.jit;
+
+import org.apache.commons.lang3.reflect.ConstructorUtils;
+import org.cojen.maker.ClassMaker;
+import org.cojen.maker.Label;
+import org.cojen.maker.MethodMaker;
+import org.cojen.maker.Variable;
+import org.siphonlab.ago.*;
+import org.siphonlab.ago.opcode.*;
+import org.siphonlab.ago.opcode.arithmetic.Add;
+import org.siphonlab.ago.opcode.arithmetic.Multiply;
+import org.siphonlab.ago.opcode.arithmetic.Subtract;
+import org.siphonlab.ago.opcode.compare.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.TreeSet;
+
+import static org.siphonlab.ago.TypeCode.*;
+
+/**
+ * translate the int[] code of an AgoFunction into a jvm method.
+ * only primitive const/move/arithmetic/compare/jump are translated, for other instructions (invoke, await, pause,
+ * accept, new, ...) the compiled code returns the pc to interpreter, so frames which need suspend still run in interpreter.
+ * return is left to interpreter too, it finishes through the frame being run, i.e. the EntranceCallFrame wraps this frame.
+ * the compiled code can be entered at pc 0 or any jump target, so a hot loop can switch to compiled code at its back-edge.
+ * primitive slots accessed by translated instructions live in jvm locals, loaded from Slots when entered and written back
+ * before the code returns to interpreter; a slot accessed in another type than its slot def stays in Slots.
+ */
+public class FunctionCompiler {
+
+    private final AgoFunction function;
+    private final int[] code;
+
+    private MethodMaker mm;
+    private Variable frame;
+    private Variable slots;
+    private Label[] labels;
+
+    private TypeCode[] localTypes;      // type of slots kept in jvm locals, null for slots accessed through Slots
+    private boolean[] written;
+    private Variable[] locals;
+    private Variable exitPc;
+    private Label exit;
+
+    public FunctionCompiler(AgoFunction function) {
+        this.function = function;
+        this.code = function.getCode();
+    }
+
+    /**
+     * @return null if nothing can be compiled
+     */
+    public CompiledFunction compile() {
+        if (code == null || code.length == 0) return null;
+
+        var clsCM = ClassMaker.begin(URLEncoder.encode(function.getFullname(), StandardCharsets.UTF_8) + "_jit").public_().extend(CompiledFunction.class);
+        clsCM.addConstructor().public_();
+
+        mm = clsCM.addMethod(int.class, "run", AgoFrame.class, Slots.class, int.class).public_().override();
+        frame = mm.param(0);
+        slots = mm.param(1);
+
+        scanSlots();
+        for (int slot = 0; slot < locals.length; slot++) {
+            if (localTypes[slot] != null) {
+                locals[slot] = mm.var(DefaultSlotsCreatorFactory.typeOf(localTypes[slot]));
+                locals[slot].set(slots.invoke("get" + DefaultSlotsCreatorFactory.slotFunctionName(localTypes[slot]), slot));
+            }
+        }
+        exitPc = mm.var(int.class);
+        exit = mm.label();
+
+        // entrances: 0 and all jump targets
+        TreeSet<Integer> entrances = new TreeSet<>();
+        entrances.add(0);
+        for (int pc = 0; pc < code.length; pc += 1 + (code[pc] & OpCode.SIZE_MASK)) {
+            int target = jumpTarget(code[pc], pc + 1);
+            if (target >= 0 && target <= code.length) entrances.add(target);
+        }
+        labels = new Label[code.length + 1];
+        int[] cases = new int[entrances.size()];
+        Label[] caseLabels = new Label[entrances.size()];
+        int i = 0;
+        for (Integer entrance : entrances) {
+            cases[i] = entrance;
+            caseLabels[i] = labels[entrance] = mm.label();
+            i++;
+        }
+        Label notEntrance = mm.label();
+        mm.param(2).switch_(notEntrance, cases, caseLabels);
+        notEntrance.here();
+        mm.return_(mm.param(2));
+
+        int translated = 0;
+        for (int pc = 0; pc < code.length; ) {
+            if (labels[pc] != null) labels[pc].here();
+            int instruction = code[pc];
+            if (translate(instruction, pc + 1)) {
+                translated++;
+            } else {
+                exit(pc);     // back to interpreter
+            }
+            pc += 1 + (instruction & OpCode.SIZE_MASK);
+        }
+        if (labels[code.length] != null) labels[code.length].here();
+        exit(code.length);
+
+        exit.here();
+        writeBack();
+        mm.return_(exitPc);
+
+        if (translated == 0) return null;
+        try {
+            Class<?> compiledClass = clsCM.finish();
+            return (CompiledFunction) ConstructorUtils.invokeConstructor(compiledClass);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException |
+                 InstantiationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * find the slots the translated instructions access, a slot is kept in a jvm local if all accesses agree with its slot def
+     */
+    private void scanSlots() {
+        AgoSlotDef[] slotDefs = function.getSlotDefs();
+        int count = slotDefs == null ? 0 : slotDefs.length;
+        localTypes = new TypeCode[count];
+        written = new boolean[count];
+        locals = new Variable[count];
+        boolean[] conflicts = new boolean[count];
+        for (int pc = 0; pc < code.length; pc += 1 + (code[pc] & OpCode.SIZE_MASK)) {
+            scan(code[pc], pc + 1, slotDefs, conflicts);
+        }
+        for (int slot = 0; slot < count; slot++) {
+            if (conflicts[slot]) {
+                localTypes[slot] = null;
+                written[slot] = false;
+            }
+        }
+    }
+
+    // same cases as translate
+    private void scan(int instruction, int p, AgoSlotDef[] slotDefs, boolean[] conflicts) {
+        TypeCode t = typeOf(instruction);
+        int variant = variant(instruction);
+        switch (instruction >> 24) {
+            case Const.OP -> {
+                if (variant == 1 && isPrimitive(t)) use(t, code[p], true, slotDefs, conflicts);
+            }
+            case Move.OP -> {
+                if (variant == 1 && isPrimitive(t)) {
+                    use(t, code[p], true, slotDefs, conflicts);
+                    use(t, code[p + 1], false, slotDefs, conflicts);
+                }
+            }
+            case Add.OP, Subtract.OP, Multiply.OP -> {
+                if (!isArithmetic(t)) return;
+                switch (variant) {
+                    case 1 -> use(t, code[p], true, slotDefs, conflicts);
+                    case 2, 3 -> {
+                        use(t, code[p], true, slotDefs, conflicts);
+                        use(t, code[p + 1], false, slotDefs, conflicts);
+                    }
+                    case 4 -> {
+                        use(t, code[p], true, slotDefs, conflicts);
+                        use(t, code[p + 1], false, slotDefs, conflicts);
+                        use(t, code[p + 2], false, slotDefs, conflicts);
+                    }
+                    case 5 -> {
+                        if (instruction >> 24 != Subtract.OP) return;
+                        use(t, code[p], true, slotDefs, conflicts);
+                        use(t, code[p + 1 + (is64(t) ? 2 : 1)], false, slotDefs, conflicts);
+                    }
+                }
+            }
+            case Equals.OP, NotEquals.OP, LittleThan.OP, GreaterThan.OP, LittleEquals.OP, GreaterEquals.OP -> {
+                if (!isArithmetic(t) || (variant != 2 && variant != 4)) return;
+                use(BOOLEAN, code[p], true, slotDefs, conflicts);
+                use(t, code[p + 1], false, slotDefs, conflicts);
+                if (variant == 4) use(t, code[p + 2], false, slotDefs, conflicts);
+            }
+            case Jump.OP -> {
+                switch (instruction) {
+                    case Jump.jump_t_B_vc, Jump.jump_f_B_vc -> use(BOOLEAN, code[p], false, slotDefs, conflicts);
+                    case Jump.jump_t_i_vc, Jump.jump_f_i_vc -> use(INT, code[p], false, slotDefs, conflicts);
+                }
+            }
+            case Fused.OP -> scan(Fused.unfuse(instruction), p, slotDefs, conflicts);
+        }
+    }
+
+    private void use(TypeCode typeCode, int slot, boolean write, AgoSlotDef[] slotDefs, boolean[] conflicts) {
+        if (slot < 0 || slot >= localTypes.length) return;
+        if (slotDefs[slot].getTypeCode().value != typeCode.value || (localTypes[slot] != null && localTypes[slot].value != typeCode.value)) {
+            conflicts[slot] = true;
+            return;
+        }
+        localTypes[slot] = typeCode;
+        if (write) written[slot] = true;
+    }
+
+    private void exit(int pc) {
+        exitPc.set(pc);
+        mm.goto_(exit);
+    }
+
+    private void writeBack() {
+        for (int slot = 0; slot < locals.length; slot++) {
+            if (locals[slot] != null && written[slot]) {
+                slots.invoke("set" + DefaultSlotsCreatorFactory.slotFunctionName(localTypes[slot]), slot, locals[slot]);
+            }
+        }
+    }
+
+    private int jumpTarget(int instruction, int p) {
+        if (instruction >> 24 != Jump.OP) return -1;
+        if (instruction == Jump.jump_c) return code[p];
+        int variant = (instruction >> 8) & 0xff;
+        if (variant == 3 || variant == 4) return code[p + 1];     // jump_t_x_vc, jump_f_x_vc
+        return -1;
+    }
+
+    private boolean translate(int instruction, int p) {
+        return switch (instruction >> 24) {
+            case Const.OP -> translateConst(instruction, p);
+            case Move.OP -> translateMove(instruction, p);
+            case Add.OP, Subtract.OP, Multiply.OP -> translateArithmetic(instruction, p);
+            case Equals.OP, NotEquals.OP, LittleThan.OP, GreaterThan.OP, LittleEquals.OP, GreaterEquals.OP ->
+                    translateCompare(instruction, p);
+            case Jump.OP -> translateJump(instruction, p);
+            case Fused.OP -> translate(Fused.unfuse(instruction), p);      // the jump follows will be translated too
+            default -> false;
+        };
+    }
+
+    private boolean translateConst(int instruction, int p) {
+        TypeCode t = typeOf(instruction);
+        if (variant(instruction) != 1 || !isPrimitive(t)) return false;
+        set(t, code[p], constant(t, p + 1));
+        return true;
+    }
+
+    private boolean translateMove(int instruction, int p) {
+        TypeCode t = typeOf(instruction);
+        if (variant(instruction) != 1 || !isPrimitive(t)) return false;
+        set(t, code[p], get(t, code[p + 1]));
+        return true;
+    }
+
+    private boolean translateArithmetic(int instruction, int p) {
+        TypeCode t = typeOf(instruction);
+        if (!isArithmetic(t)) return false;
+        int kind = instruction >> 24;
+        switch (variant(instruction)) {
+            case 1 -> set(t, code[p], operate(kind, get(t, code[p]), constant(t, p + 1)));                // vc
+            case 2 -> set(t, code[p], operate(kind, get(t, code[p + 1]), constant(t, p + 2)));            // vvc
+            case 3 -> set(t, code[p], operate(kind, get(t, code[p]), get(t, code[p + 1])));               // vv
+            case 4 -> set(t, code[p], operate(kind, get(t, code[p + 1]), get(t, code[p + 2])));           // vvv
+            case 5 -> {                                                                                    // vcv
+                if (kind != Subtract.OP) return false;
+                int width = is64(t) ? 2 : 1;
+                var c = mm.var(DefaultSlotsCreatorFactory.typeOf(t));
+                c.set(constant(t, p + 1));
+                set(t, code[p], operate(kind, c, get(t, code[p + 1 + width])));
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Variable operate(int kind, Variable a, Object b) {
+        return switch (kind) {
+            case Add.OP -> a.add(b);
+            case Subtract.OP -> a.sub(b);
+            case Multiply.OP -> a.mul(b);
+            default -> throw new IllegalArgumentException("unexpected kind " + kind);
+        };
+    }
+
+    private boolean translateCompare(int instruction, int p) {
+        TypeCode t = typeOf(instruction);
+        int variant = variant(instruction);
+        if (!isArithmetic(t) || (variant != 2 && variant != 4)) return false;
+        Variable a = get(t, code[p + 1]);
+        Object b = variant == 2 ? constant(t, p + 2) : get(t, code[p + 2]);       // vvc(vvcc) or vvv
+        var r = mm.var(boolean.class);
+        r.set(true);
+        Label done = mm.label();
+        switch (instruction >> 24) {
+            case Equals.OP -> a.ifEq(b, done);
+            case NotEquals.OP -> a.ifNe(b, done);
+            case LittleThan.OP -> a.ifLt(b, done);
+            case GreaterThan.OP -> a.ifGt(b, done);
+            case LittleEquals.OP -> a.ifLe(b, done);
+            case GreaterEquals.OP -> a.ifGe(b, done);
+        }
+        r.set(false);
+        done.here();
+        set(BOOLEAN, code[p], r);
+        return true;
+    }
+
+    private boolean translateJump(int instruction, int p) {
+        switch (instruction) {
+            case Jump.jump_c -> mm.goto_(jumpTo(code[p], p));
+            case Jump.jump_t_B_vc -> {
+                Label to = jumpTo(code[p + 1], p);
+                get(BOOLEAN, code[p]).ifTrue(to);
+            }
+            case Jump.jump_f_B_vc -> {
+                Label to = jumpTo(code[p + 1], p);
+                get(BOOLEAN, code[p]).ifFalse(to);
+            }
+            case Jump.jump_t_i_vc -> {
+                Label to = jumpTo(code[p + 1], p);
+                get(INT, code[p]).ifNe(0, to);
+            }
+            case Jump.jump_f_i_vc -> {
+                Label to = jumpTo(code[p + 1], p);
+                get(INT, code[p]).ifEq(0, to);
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * a back-edge goes through the check of time slice, and returns to interpreter to yield when it used up, see AgoFrame.yieldAt
+     */
+    private Label jumpTo(int target, int p) {
+        if (target >= p) return labels[target];
+        Label backEdge = mm.label();
+        Label next = mm.label();
+        mm.goto_(next);
+        backEdge.here();
+        frame.invoke("tickBackEdge").ifTrue(labels[target]);
+        exit(AgoFrame.yieldAt(code, target));
+        next.here();
+        return backEdge;
+    }
+
+    private Variable get(TypeCode typeCode, int slot) {
+        if (slot >= 0 && slot < locals.length && locals[slot] != null) return locals[slot];
+        return slots.invoke("get" + DefaultSlotsCreatorFactory.slotFunctionName(typeCode), slot);
+    }
+
+    private void set(TypeCode typeCode, int slot, Object value) {
+        if (slot >= 0 && slot < locals.length && locals[slot] != null) {
+            locals[slot].set(value);
+            return;
+        }
+        slots.invoke("set" + DefaultSlotsCreatorFactory.slotFunctionName(typeCode), slot, value);
+    }
+
+    private Object constant(TypeCode typeCode, int p) {
+        return switch (typeCode.value) {
+            case BOOLEAN_VALUE -> code[p] != 0;
+            case CHAR_VALUE -> (char) code[p];
+            case BYTE_VALUE -> (byte) code[p];
+            case SHORT_VALUE -> (short) code[p];
+            case INT_VALUE -> code[p];
+            case FLOAT_VALUE -> Float.intBitsToFloat(code[p]);
+            case LONG_VALUE -> toLong(code[p], code[p + 1]);
+            case DOUBLE_VALUE -> Double.longBitsToDouble(toLong(code[p], code[p + 1]));
+            default -> throw new IllegalArgumentException("unexpected type " + typeCode);
+        };
+    }
+
+    private static long toLong(int i1, int i2) {
+        return ((long) i1 << 32) | ((long) i2 & 0x0000_0000_ffff_ffffL);
+    }
+
+    private static TypeCode typeOf(int instruction) {
+        int t = OpCode.extractType(instruction);
+        return t <= CLASS_REF_VALUE ? TypeCode.of(t) : VOID;       // generic type treat as unsupported
+    }
+
+    private static int variant(int instruction) {
+        return (instruction >> 8) & 0xff;
+    }
+
+    private static boolean isPrimitive(TypeCode typeCode) {
+        return typeCode.value >= BOOLEAN_VALUE && typeCode.value <= LONG_VALUE;
+    }
+
+    private static boolean isArithmetic(TypeCode typeCode) {
+        return switch (typeCode.value) {
+            case INT_VALUE, LONG_VALUE, FLOAT_VALUE, DOUBLE_VALUE -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean is64(TypeCode typeCode) {
+        return typeCode.value == LONG_VALUE || typeCode.value == DOUBLE_VALUE;
+    }
+}
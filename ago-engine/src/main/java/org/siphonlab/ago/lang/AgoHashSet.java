@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.lang;
+
+import org.siphonlab.ago.Instance;
+import org.siphonlab.ago.native_.NativeFrame;
+import org.siphonlab.ago.native_.NativeInstance;
+
+/**
+ * lang.HashSet, the payload is a NativeSet chosen by the element type when created,
+ * float/double elements are converted to their bit representation like AgoHashMap
+ */
+public class AgoHashSet {
+
+    public static void create(NativeFrame callFrame) {
+        NativeInstance instance = (NativeInstance) callFrame.getParentScope();
+        instance.setNativePayload(NativeSet.create(callFrame.getAgoEngine(), BoxedType.typeArgument(instance, 0)));
+        callFrame.finishVoid();
+    }
+
+    static NativeSet set(NativeFrame callFrame) {
+        return (NativeSet) ((NativeInstance) callFrame.getParentScope()).getNativePayload();
+    }
+
+    public static void getCount(NativeFrame callFrame) {
+        callFrame.finishInt(set(callFrame).size());
+    }
+
+    public static void isReadOnly(NativeFrame callFrame) {
+        callFrame.finishBoolean(false);
+    }
+
+    public static void clear(NativeFrame callFrame) {
+        set(callFrame).clear();
+        callFrame.finishVoid();
+    }
+
+    public static void ensureCapacity(NativeFrame callFrame, int capacity) {
+        set(callFrame).ensureCapacity(capacity);
+        callFrame.finishVoid();
+    }
+
+    public static void addAll(NativeFrame callFrame, Instance<?> other) {
+        set(callFrame).addAll((NativeSet) ((NativeInstance) other).getNativePayload(), callFrame);
+        callFrame.finishVoid();
+    }
+
+    public static void add(NativeFrame callFrame, int item) {
+        set(callFrame).add(item);
+        callFrame.finishVoid();
+    }
+
+    public static void add(NativeFrame callFrame, long item) {
+        set(callFrame).add(item);
+        callFrame.finishVoid();
+    }
+
+    public static void add(NativeFrame callFrame, float item) {
+        set(callFrame).add(Float.floatToIntBits(item));
+        callFrame.finishVoid();
+    }
+
+    public static void add(NativeFrame callFrame, double item) {
+        set(callFrame).add(Double.doubleToLongBits(item));
+        callFrame.finishVoid();
+    }
+
+    public static void add(NativeFrame callFrame, boolean item) {
+        set(callFrame).add(item ? 1 : 0);
+        callFrame.finishVoid();
+    }
+
+    public static void add(NativeFrame callFrame, String item) {
+        set(callFrame).add(callFrame, item);
+        callFrame.finishVoid();
+    }
+
+    public static void add(NativeFrame callFrame, short item) {
+        set(callFrame).add((int) item);
+        callFrame.finishVoid();
+    }
+
+    public static void add(NativeFrame callFrame, byte item) {
+        set(callFrame).add((int) item);
+        callFrame.finishVoid();
+    }
+
+    public static void add(NativeFrame callFrame, char item) {
+        set(callFrame).add((int) item);
+        callFrame.finishVoid();
+    }
+
+    public static void add(NativeFrame callFrame, Instance<?> item) {
+        set(callFrame).add(callFrame, item);
+        callFrame.finishVoid();
+    }
+
+    public static void contains(NativeFrame callFrame, int item) {
+        callFrame.finishBoolean(set(callFrame).contains(item));
+    }
+
+    public static void contains(NativeFrame callFrame, long item) {
+        callFrame.finishBoolean(set(callFrame).contains(item));
+    }
+
+    public static void contains(NativeFrame callFrame, float item) {
+        callFrame.finishBoolean(set(callFrame).contains(Float.floatToIntBits(item)));
+    }
+
+    public static void contains(NativeFrame callFrame, double item) {
+        callFrame.finishBoolean(set(callFrame).contains(Double.doubleToLongBits(item)));
+    }
+
+    public static void contains(NativeFrame callFrame, boolean item) {
+        callFrame.finishBoolean(set(callFrame).contains(item ? 1 : 0));
+    }
+
+    public static void contains(NativeFrame callFrame, String item) {
+        callFrame.finishBoolean(set(callFrame).contains(callFrame, item));
+    }
+
+    public static void contains(NativeFrame callFrame, short item) {
+        callFrame.finishBoolean(set(callFrame).contains((int) item));
+    }
+
+    public static void contains(NativeFrame callFrame, byte item) {
+        callFrame.finishBoolean(set(callFrame).contains((int) item));
+    }
+
+    public static void contains(NativeFrame callFrame, char item) {
+        callFrame.finishBoolean(set(callFrame).contains((int) item));
+    }
+
+    public static void contains(NativeFrame callFrame, Instance<?> item) {
+        callFrame.finishBoolean(set(callFrame).contains(callFrame, item));
+    }
+
+    public static void copyTo(NativeFrame callFrame, Instance<?> array, int arrayIndex) {
+        // not implemented yet
+        callFrame.finishVoid();
+    }
+
+    public static void remove(NativeFrame callFrame, int item) {
+        callFrame.finishBoolean(set(callFrame).remove(item));
+    }
+
+    public static void remove(NativeFrame callFrame, long item) {
+        callFrame.finishBoolean(set(callFrame).remove(item));
+    }
+
+    public static void remove(NativeFrame callFrame, float item) {
+        callFrame.finishBoolean(set(callFrame).remove(Float.floatToIntBits(item)));
+    }
+
+    public static void remove(NativeFrame callFrame, double item) {
+        callFrame.finishBoolean(set(callFrame).remove(Double.doubleToLongBits(item)));
+    }
+
+    public static void remove(NativeFrame callFrame, boolean item) {
+        callFrame.finishBoolean(set(callFrame).remove(item ? 1 : 0));
+    }
+
+    public static void remove(NativeFrame callFrame, String item) {
+        callFrame.finishBoolean(set(callFrame).remove(callFrame, item));
+    }
+
+    public static void remove(NativeFrame callFrame, short item) {
+        callFrame.finishBoolean(set(callFrame).remove((int) item));
+    }
+
+    public static void remove(NativeFrame callFrame, byte item) {
+        callFrame.finishBoolean(set(callFrame).remove((int) item));
+    }
+
+    public static void remove(NativeFrame callFrame, char item) {
+        callFrame.finishBoolean(set(callFrame).remove((int) item));
+    }
+
+    public static void remove(NativeFrame callFrame, Instance<?> item) {
+        callFrame.finishBoolean(set(callFrame).remove(callFrame, item));
+    }
+
+    public static void Iterator_create(NativeFrame callFrame) {
+        NativeInstance instance = (NativeInstance) callFrame.getParentScope().getParentScope();
+        NativeInstance iteratorInstance = (NativeInstance) callFrame.getParentScope();
+        iteratorInstance.setNativePayload(((NativeSet) instance.getNativePayload()).iterator());
+        callFrame.finishVoid();
+    }
+
+    public static void Iterator_hasNext(NativeFrame callFrame) {
+        NativeInstance iteratorInstance = (NativeInstance) callFrame.getParentScope();
+        callFrame.finishBoolean(((NativeList.Cursor) iteratorInstance.getNativePayload()).hasNext());
+    }
+
+    public static void Iterator_next(NativeFrame callFrame) {
+        NativeInstance iteratorInstance = (NativeInstance) callFrame.getParentScope();
+        ((NativeList.Cursor) iteratorInstance.getNativePayload()).next(callFrame);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.lang;
+
+import org.siphonlab.ago.GenericArgumentsInfo;
+import org.siphonlab.ago.Instance;
+import org.siphonlab.ago.Slots;
+import org.siphonlab.ago.TypeCode;
+import org.siphonlab.ago.native_.NativeFrame;
+import org.siphonlab.ago.native_.NativeInstance;
+
+import static org.siphonlab.ago.TypeCode.*;
+
+/**
+ * unbox a value stored in a java collection back to ago, one instance for each TypeCode,
+ * collections pick it by the generic argument once when created instead of switching on each access
+ */
+abstract class BoxedType {
+
+    /**
+     * finish the frame with the value, null for the default value of the type
+     */
+    abstract void finish(NativeFrame callFrame, Object value);
+
+    abstract void write(Slots slots, int index, Object value);
+
+    static final BoxedType INT = new BoxedType() {
+        void finish(NativeFrame callFrame, Object value) { callFrame.finishInt(value == null ? 0 : (Integer) value); }
+        void write(Slots slots, int index, Object value) { slots.setInt(index, value == null ? 0 : (Integer) value); }
+    };
+
+    static final BoxedType LONG = new BoxedType() {
+        void finish(NativeFrame callFrame, Object value) { callFrame.finishLong(value == null ? 0L : (Long) value); }
+        void write(Slots slots, int index, Object value) { slots.setLong(index, value == null ? 0L : (Long) value); }
+    };
+
+    static final BoxedType FLOAT = new BoxedType() {
+        void finish(NativeFrame callFrame, Object value) { callFrame.finishFloat(value == null ? 0f : (Float) value); }
+        void write(Slots slots, int index, Object value) { slots.setFloat(index, value == null ? 0f : (Float) value); }
+    };
+
+    static final BoxedType DOUBLE = new BoxedType() {
+        void finish(NativeFrame callFrame, Object value) { callFrame.finishDouble(value == null ? 0d : (Double) value); }
+        void write(Slots slots, int index, Object value) { slots.setDouble(index, value == null ? 0d : (Double) value); }
+    };
+
+    static final BoxedType BOOLEAN = new BoxedType() {
+        void finish(NativeFrame callFrame, Object value) { callFrame.finishBoolean(value != null && (Boolean) value); }
+        void write(Slots slots, int index, Object value) { slots.setBoolean(index, value != null && (Boolean) value); }
+    };
+
+    static final BoxedType STRING = new BoxedType() {
+        void finish(NativeFrame callFrame, Object value) { callFrame.finishString((String) value); }
+        void write(Slots slots, int index, Object value) { slots.setString(index, (String) value); }
+    };
+
+    static final BoxedType SHORT = new BoxedType() {
+        void finish(NativeFrame callFrame, Object value) { callFrame.finishShort(value == null ? 0 : (Short) value); }
+        void write(Slots slots, int index, Object value) { slots.setShort(index, value == null ? 0 : (Short) value); }
+    };
+
+    static final BoxedType BYTE = new BoxedType() {
+        void finish(NativeFrame callFrame, Object value) { callFrame.finishByte(value == null ? 0 : (Byte) value); }
+        void write(Slots slots, int index, Object value) { slots.setByte(index, value == null ? 0 : (Byte) value); }
+    };
+
+    static final BoxedType CHAR = new BoxedType() {
+        void finish(NativeFrame callFrame, Object value) { callFrame.finishChar(value == null ? 0 : (Character) value); }
+        void write(Slots slots, int index, Object value) { slots.setChar(index, value == null ? 0 : (Character) value); }
+    };
+
+    static final BoxedType OBJECT = new BoxedType() {
+        void finish(NativeFrame callFrame, Object value) { callFrame.finishObject((Instance<?>) value); }
+        void write(Slots slots, int index, Object value) { slots.setObject(index, (Instance<?>) value); }
+    };
+
+    // class id boxed as Integer
+    static final BoxedType CLASS_REF = new BoxedType() {
+        void finish(NativeFrame callFrame, Object value) {
+            callFrame.finishClassRef(value == null ? null : callFrame.getAgoEngine().getClass((Integer) value));
+        }
+        void write(Slots slots, int index, Object value) { slots.setClassRef(index, value == null ? 0 : (Integer) value); }
+    };
+
+    static BoxedType of(TypeCode typeCode) {
+        return switch (typeCode.value) {
+            case INT_VALUE -> INT;
+            case LONG_VALUE -> LONG;
+            case FLOAT_VALUE -> FLOAT;
+            case DOUBLE_VALUE -> DOUBLE;
+            case BOOLEAN_VALUE -> BOOLEAN;
+            case STRING_VALUE -> STRING;
+            case SHORT_VALUE -> SHORT;
+            case BYTE_VALUE -> BYTE;
+            case CHAR_VALUE -> CHAR;
+            case OBJECT_VALUE -> OBJECT;
+            case CLASS_REF_VALUE -> CLASS_REF;
+            default -> throw new IllegalArgumentException("unknown type: %s".formatted(typeCode));
+        };
+    }
+
+    /**
+     * @return type code of the generic argument at `index` of the native collection
+     */
+    static TypeCode typeArgument(NativeInstance instance, int index) {
+        GenericArgumentsInfo genericArgumentsInfo = (GenericArgumentsInfo) instance.getAgoClass().getConcreteTypeInfo();
+        return genericArgumentsInfo.getArguments()[index].getTypeCode();
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.lang;
+
+import org.siphonlab.ago.*;
+import org.siphonlab.ago.native_.NativeFrame;
+import org.siphonlab.ago.native_.NativeInstance;
+
+import java.util.ArrayDeque;
+
+import static org.siphonlab.ago.TypeCode.*;
+
+/**
+ * lang.Channel, messages are passed by reference between RunSpaces of the same engine.
+ * a receiver finds no message suspends by NativeFrame.beginAsync and is resumed by the sender who hands the message to it,
+ * a sender of a full bounded channel suspends the same way and is resumed when a receiver takes a message.
+ * the frames are resumed out of the lock, the resuming only moves the RunSpace to its host.
+ */
+public class Channel {
+
+    static class AgoChannel {
+        private final int capacity;       // 0 for unbounded
+        private final ArrayDeque<Object> messages = new ArrayDeque<>();
+        private final ArrayDeque<NativeFrame> receivers = new ArrayDeque<>();
+        private final ArrayDeque<PendingSend> senders = new ArrayDeque<>();
+
+        AgoChannel(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized int count() {
+            return messages.size();
+        }
+    }
+
+    private record PendingSend(NativeFrame frame, Object message) {
+    }
+
+    public static void create(NativeFrame nativeFrame, int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("illegal capacity " + capacity);
+        NativeInstance instance = (NativeInstance) nativeFrame.getParentScope();
+        instance.setNativePayload(new AgoChannel(capacity));
+        nativeFrame.finishVoid();
+    }
+
+    public static void getCount(NativeFrame nativeFrame) {
+        nativeFrame.finishInt(getChannel(nativeFrame).count());
+    }
+
+    private static AgoChannel getChannel(NativeFrame nativeFrame) {
+        NativeInstance instance = (NativeInstance) nativeFrame.getParentScope();
+        return (AgoChannel) instance.getNativePayload();
+    }
+
+    private static TypeCode getElementType(NativeFrame nativeFrame) {
+        NativeInstance instance = (NativeInstance) nativeFrame.getParentScope();
+        GenericArgumentsInfo genericArgumentsInfo = (GenericArgumentsInfo) instance.getAgoClass().getConcreteTypeInfo();
+        return genericArgumentsInfo.getArguments()[0].getTypeCode();
+    }
+
+    // hand over to a waiting receiver, or enqueue if there is room,
+    // otherwise return false and leave the channel unchanged, or park the sender if `wait`
+    private static boolean offer(NativeFrame nativeFrame, Object message, boolean wait) {
+        AgoChannel channel = getChannel(nativeFrame);
+        NativeFrame receiver;
+        synchronized (channel) {
+            receiver = channel.receivers.poll();
+            if (receiver == null) {
+                if (channel.capacity == 0 || channel.messages.size() < channel.capacity) {
+                    channel.messages.add(message);
+                    return true;
+                }
+                if (wait) {
+                    nativeFrame.beginAsync();
+                    PendingSend pendingSend = new PendingSend(nativeFrame, message);
+                    channel.senders.add(pendingSend);
+                    nativeFrame.onCancel(() -> {
+                        synchronized (channel) {
+                            channel.senders.remove(pendingSend);
+                        }
+                    });
+                }
+                return false;
+            }
+        }
+        finishReceive(receiver, getElementType(nativeFrame), message, true);
+        return true;
+    }
+
+    private static void sendMessage(NativeFrame nativeFrame, Object message) {
+        if (offer(nativeFrame, message, true)) nativeFrame.finishVoid();
+    }
+
+    private static void trySendMessage(NativeFrame nativeFrame, Object message) {
+        nativeFrame.finishBoolean(offer(nativeFrame, message, false));
+    }
+
+    public static void receive(NativeFrame nativeFrame) {
+        AgoChannel channel = getChannel(nativeFrame);
+        Object message;
+        PendingSend pendingSend;
+        synchronized (channel) {
+            if (channel.messages.isEmpty()) {     // senders only wait on a full channel, so none is waiting now
+                nativeFrame.beginAsync();
+                channel.receivers.add(nativeFrame);
+                nativeFrame.onCancel(() -> {
+                    synchronized (channel) {
+                        channel.receivers.remove(nativeFrame);
+                    }
+                });
+                return;
+            }
+            message = channel.messages.poll();
+            pendingSend = channel.senders.poll();
+            if (pendingSend != null) channel.messages.add(pendingSend.message());
+        }
+        if (pendingSend != null) pendingSend.frame().finishVoidAsync();
+        finishReceive(nativeFrame, getElementType(nativeFrame), message, false);
+    }
+
+    private static void finishReceive(NativeFrame receiver, TypeCode typeCode, Object message, boolean async) {
+        switch (typeCode.value) {
+            case INT_VALUE:
+                if (async) receiver.finishIntAsync((Integer) message); else receiver.finishInt((Integer) message);
+                break;
+            case LONG_VALUE:
+                if (async) receiver.finishLongAsync((Long) message); else receiver.finishLong((Long) message);
+                break;
+            case FLOAT_VALUE:
+                if (async) receiver.finishFloatAsync((Float) message); else receiver.finishFloat((Float) message);
+                break;
+            case DOUBLE_VALUE:
+                if (async) receiver.finishDoubleAsync((Double) message); else receiver.finishDouble((Double) message);
+                break;
+            case BOOLEAN_VALUE:
+                if (async) receiver.finishBooleanAsync((Boolean) message); else receiver.finishBoolean((Boolean) message);
+                break;
+            case STRING_VALUE:
+                if (async) receiver.finishStringAsync((String) message); else receiver.finishString((String) message);
+                break;
+            case SHORT_VALUE:
+                if (async) receiver.finishShortAsync((Short) message); else receiver.finishShort((Short) message);
+                break;
+            case BYTE_VALUE:
+                if (async) receiver.finishByteAsync((Byte) message); else receiver.finishByte((Byte) message);
+                break;
+            case CHAR_VALUE:
+                if (async) receiver.finishCharAsync((Character) message); else receiver.finishChar((Character) message);
+                break;
+            case OBJECT_VALUE:
+                if (async) receiver.finishObjectAsync((Instance<?>) message); else receiver.finishObject((Instance<?>) message);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown type: %s".formatted(typeCode));
+        }
+    }
+
+    public static void send(NativeFrame nativeFrame, Instance<?> message) {
+        sendMessage(nativeFrame, message);
+    }
+
+    public static void send(NativeFrame nativeFrame, int message) {
+        sendMessage(nativeFrame, message);
+    }
+
+    public static void send(NativeFrame nativeFrame, long message) {
+        sendMessage(nativeFrame, message);
+    }
+
+    public static void send(NativeFrame nativeFrame, float message) {
+        sendMessage(nativeFrame, message);
+    }
+
+    public static void send(NativeFrame nativeFrame, double message) {
+        sendMessage(nativeFrame, message);
+    }
+
+    public static void send(NativeFrame nativeFrame, boolean message) {
+        sendMessage(nativeFrame, message);
+    }
+
+    public static void send(NativeFrame nativeFrame, String message) {
+        sendMessage(nativeFrame, message);
+    }
+
+    public static void send(NativeFrame nativeFrame, short message) {
+        sendMessage(nativeFrame, message);
+    }
+
+    public static void send(NativeFrame nativeFrame, byte message) {
+        sendMessage(nativeFrame, message);
+    }
+
+    public static void send(NativeFrame nativeFrame, char message) {
+        sendMessage(nativeFrame, message);
+    }
+
+    public static void trySend(NativeFrame nativeFrame, Instance<?> message) {
+        trySendMessage(nativeFrame, message);
+    }
+
+    public static void trySend(NativeFrame nativeFrame, int message) {
+        trySendMessage(nativeFrame, message);
+    }
+
+    public static void trySend(NativeFrame nativeFrame, long message) {
+        trySendMessage(nativeFrame, message);
+    }
+
+    public static void trySend(NativeFrame nativeFrame, float message) {
+        trySendMessage(nativeFrame, message);
+    }
+
+    public static void trySend(NativeFrame nativeFrame, double message) {
+        trySendMessage(nativeFrame, message);
+    }
+
+    public static void trySend(NativeFrame nativeFrame, boolean message) {
+        trySendMessage(nativeFrame, message);
+    }
+
+    public static void trySend(NativeFrame nativeFrame, String message) {
+        trySendMessage(nativeFrame, message);
+    }
+
+    public static void trySend(NativeFrame nativeFrame, short message) {
+        trySendMessage(nativeFrame, message);
+    }
+
+    public static void trySend(NativeFrame nativeFrame, byte message) {
+        trySendMessage(nativeFrame, message);
+    }
+
+    public static void trySend(NativeFrame nativeFrame, char message) {
+        trySendMessage(nativeFrame, message);
+    }
+}
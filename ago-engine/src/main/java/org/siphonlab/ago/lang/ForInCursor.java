@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.lang;
+
+import org.siphonlab.ago.*;
+import org.siphonlab.ago.native_.NativeInstance;
+
+/**
+ * cursor of iter_init/iter_next, the compiler lowers for-in over ArrayList, LinkedList, HashSet and HashMap to them,
+ * they are final so iterator() can't be overridden.
+ * the cursor walks the NativeList, NativeSet or NativeMap payload directly and is kept in an object slot,
+ * it's an instance of lang.ForInCursor.
+ * elements are written to the slot without boxing, a map still creates a KeyValuePair for each entry.
+ */
+public abstract class ForInCursor extends Instance<AgoClass> {
+
+    ForInCursor(CallFrame<?> frame) {
+        super(frame.getAgoEngine().getLangClasses().getForInCursorClass());
+    }
+
+    /**
+     * write the next element to the slot
+     * @return false if no more
+     */
+    abstract boolean next(Slots slots, int index);
+
+    /**
+     * @return the cursor, null for null collection
+     */
+    public static ForInCursor begin(Instance<?> collection, CallFrame<?> frame) {
+        if (collection == null) return null;
+        return switch (((NativeInstance) collection).getNativePayload()) {
+            case NativeList list -> new ListCursor(list.iterator(), frame);
+            case NativeSet set -> new ListCursor(set.iterator(), frame);
+            case NativeMap map -> new MapCursor(map.iterator(), keyValuePairClass(collection.getAgoClass()), frame);
+            default -> throw new IllegalArgumentException("%s is not a native collection".formatted(collection));
+        };
+    }
+
+    public static boolean next(Instance<?> cursor, Slots slots, int index) {
+        return cursor != null && ((ForInCursor) cursor).next(slots, index);
+    }
+
+    // KeyValuePair<Key, Value> from `iterator() as Iterator<KeyValuePair<Key, Value>>`
+    private static AgoClass keyValuePairClass(AgoClass mapClass) {
+        AgoClass iteratorType = mapClass.findMethod("iterator#").getResultClass();
+        return ((GenericArgumentsInfo) iteratorType.getConcreteTypeInfo()).getArguments()[0].getAgoClass();
+    }
+
+    private static final class ListCursor extends ForInCursor {
+        private final NativeList.Cursor cursor;
+
+        ListCursor(NativeList.Cursor cursor, CallFrame<?> frame) {
+            super(frame);
+            this.cursor = cursor;
+        }
+
+        boolean next(Slots slots, int index) {
+            if (!cursor.hasNext()) return false;
+            cursor.next(slots, index);
+            return true;
+        }
+    }
+
+    private static final class MapCursor extends ForInCursor {
+        private final NativeMap.Cursor cursor;
+        private final AgoClass keyValuePairClass;
+        private final CallFrame<?> frame;
+
+        MapCursor(NativeMap.Cursor cursor, AgoClass keyValuePairClass, CallFrame<?> frame) {
+            super(frame);
+            this.cursor = cursor;
+            this.keyValuePairClass = keyValuePairClass;
+            this.frame = frame;
+        }
+
+        boolean next(Slots slots, int index) {
+            if (!cursor.hasNext()) return false;
+            Instance<?> entry = frame.getAgoEngine().createInstance(keyValuePairClass, frame);
+            cursor.next(entry.getSlots());
+            slots.setObject(index, entry);
+            return true;
+        }
+    }
+}
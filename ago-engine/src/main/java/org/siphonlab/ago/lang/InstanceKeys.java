@@ -0,0 +1,190 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.lang;
+
+import org.siphonlab.ago.*;
+
+import java.util.IdentityHashMap;
+import java.util.Objects;
+
+/**
+ * hashing of object keys of NativeMap and NativeSet, compared by value:
+ * boxed primitives and String hash and compare the value in slot 0 without ago call,
+ * classes keep hashCode/equals of Object compare by identity, others invoke the ago methods by the caller frame.
+ * the Kind of a class is resolved once, each map keeps its own InstanceKeys, a map meets few key classes.
+ */
+final class InstanceKeys implements OpenHashTable.Hashing {
+
+    /**
+     * how instances of a class hash and compare
+     */
+    private abstract static class Kind {
+        abstract int hash(Instance<?> instance, CallFrame<?> caller);
+
+        abstract boolean equals(Instance<?> instance, Instance<?> other, CallFrame<?> caller);
+
+        // Object.hashCode and Object.equals not overridden
+        static final Kind IDENTITY = new Kind() {
+            int hash(Instance<?> instance, CallFrame<?> caller) { return instance.hashCode(); }
+            boolean equals(Instance<?> instance, Instance<?> other, CallFrame<?> caller) { return false; }
+        };
+    }
+
+    // boxed primitives and String, the value is in slot 0
+    private abstract static class BoxKind extends Kind {
+        boolean equals(Instance<?> instance, Instance<?> other, CallFrame<?> caller) {
+            return instance.getAgoClass() == other.getAgoClass() && sameValue(instance.getSlots(), other.getSlots());
+        }
+
+        abstract boolean sameValue(Slots slots, Slots other);
+    }
+
+    private static final Kind INT = new BoxKind() {
+        int hash(Instance<?> instance, CallFrame<?> caller) { return Integer.hashCode(instance.getSlots().getInt(0)); }
+        boolean sameValue(Slots slots, Slots other) { return slots.getInt(0) == other.getInt(0); }
+    };
+
+    private static final Kind LONG = new BoxKind() {
+        int hash(Instance<?> instance, CallFrame<?> caller) { return Long.hashCode(instance.getSlots().getLong(0)); }
+        boolean sameValue(Slots slots, Slots other) { return slots.getLong(0) == other.getLong(0); }
+    };
+
+    private static final Kind FLOAT = new BoxKind() {
+        int hash(Instance<?> instance, CallFrame<?> caller) { return Float.hashCode(instance.getSlots().getFloat(0)); }
+        boolean sameValue(Slots slots, Slots other) {
+            return Float.floatToIntBits(slots.getFloat(0)) == Float.floatToIntBits(other.getFloat(0));
+        }
+    };
+
+    private static final Kind DOUBLE = new BoxKind() {
+        int hash(Instance<?> instance, CallFrame<?> caller) { return Double.hashCode(instance.getSlots().getDouble(0)); }
+        boolean sameValue(Slots slots, Slots other) {
+            return Double.doubleToLongBits(slots.getDouble(0)) == Double.doubleToLongBits(other.getDouble(0));
+        }
+    };
+
+    private static final Kind BOOLEAN = new BoxKind() {
+        int hash(Instance<?> instance, CallFrame<?> caller) { return Boolean.hashCode(instance.getSlots().getBoolean(0)); }
+        boolean sameValue(Slots slots, Slots other) { return slots.getBoolean(0) == other.getBoolean(0); }
+    };
+
+    private static final Kind STRING = new BoxKind() {
+        int hash(Instance<?> instance, CallFrame<?> caller) { return Objects.hashCode(instance.getSlots().getString(0)); }
+        boolean sameValue(Slots slots, Slots other) { return Objects.equals(slots.getString(0), other.getString(0)); }
+    };
+
+    private static final Kind SHORT = new BoxKind() {
+        int hash(Instance<?> instance, CallFrame<?> caller) { return instance.getSlots().getShort(0); }
+        boolean sameValue(Slots slots, Slots other) { return slots.getShort(0) == other.getShort(0); }
+    };
+
+    private static final Kind BYTE = new BoxKind() {
+        int hash(Instance<?> instance, CallFrame<?> caller) { return instance.getSlots().getByte(0); }
+        boolean sameValue(Slots slots, Slots other) { return slots.getByte(0) == other.getByte(0); }
+    };
+
+    private static final Kind CHAR = new BoxKind() {
+        int hash(Instance<?> instance, CallFrame<?> caller) { return instance.getSlots().getChar(0); }
+        boolean sameValue(Slots slots, Slots other) { return slots.getChar(0) == other.getChar(0); }
+    };
+
+    private static final Kind CLASS_REF = new BoxKind() {
+        int hash(Instance<?> instance, CallFrame<?> caller) { return instance.getSlots().getClassRef(0); }
+        boolean sameValue(Slots slots, Slots other) { return slots.getClassRef(0) == other.getClassRef(0); }
+    };
+
+    // invoke ago hashCode and equals like Map.MyKeyWrapper, a null hashCode method uses the identity hash
+    private static final class AgoMethodKind extends Kind {
+        private final AgoFunction hashCode;
+        private final AgoFunction equals;
+
+        AgoMethodKind(AgoFunction hashCode, AgoFunction equals) {
+            this.hashCode = hashCode;
+            this.equals = equals;
+        }
+
+        int hash(Instance<?> instance, CallFrame<?> caller) {
+            requireCaller(caller);
+            if (hashCode == null) return instance.hashCode();
+            return (Integer) instance.invokeMethodInCurrentThread(caller, hashCode);
+        }
+
+        boolean equals(Instance<?> instance, Instance<?> other, CallFrame<?> caller) {
+            requireCaller(caller);
+            if (equals == null) return false;
+            return (Boolean) instance.invokeMethodInCurrentThread(caller, equals, other);
+        }
+
+        // hash and equals must agree, a key hashed by identity without caller can never equal the same key hashed by ago
+        private static void requireCaller(CallFrame<?> caller) {
+            if (caller == null) throw new IllegalArgumentException("ago hashCode() and equals() require the caller frame");
+        }
+    }
+
+    private final IdentityHashMap<AgoClass, Kind> kinds = new IdentityHashMap<>();
+    private final AgoClass objectClass;
+    private final AgoFunction objectHashCode;
+    private final AgoFunction objectEquals;
+
+    InstanceKeys(AgoEngine engine) {
+        LangClasses langClasses = engine.getLangClasses();
+        this.objectClass = langClasses.getObjectClass();
+        this.objectHashCode = objectClass.findMethod("hashCode#");
+        this.objectEquals = objectClass.findMethod("equals#");
+        kinds.put(langClasses.getIntegerClass(), INT);
+        kinds.put(langClasses.getLongClass(), LONG);
+        kinds.put(langClasses.getFloatClass(), FLOAT);
+        kinds.put(langClasses.getDoubleClass(), DOUBLE);
+        kinds.put(langClasses.getBooleanClass(), BOOLEAN);
+        kinds.put(langClasses.getStringClass(), STRING);
+        kinds.put(langClasses.getShortClass(), SHORT);
+        kinds.put(langClasses.getByteClass(), BYTE);
+        kinds.put(langClasses.getCharClass(), CHAR);
+        kinds.put(langClasses.getClassRefClass(), CLASS_REF);
+    }
+
+    @Override
+    public int hash(Object key, CallFrame<?> caller) {
+        if (key == null) return 0;
+        Instance<?> instance = (Instance<?>) key;
+        return kindOf(instance).hash(instance, caller);
+    }
+
+    // the identity is compared by the table already
+    @Override
+    public boolean equals(Object key, Object stored, CallFrame<?> caller) {
+        if (key == null || stored == null) return false;
+        Instance<?> instance = (Instance<?>) key;
+        return kindOf(instance).equals(instance, (Instance<?>) stored, caller);
+    }
+
+    private Kind kindOf(Instance<?> instance) {
+        return kinds.computeIfAbsent(instance.getAgoClass(), this::resolve);
+    }
+
+    private Kind resolve(AgoClass agoClass) {
+        AgoFunction hashCode = agoClass.findMethod("hashCode#");
+        AgoFunction equals = agoClass.findMethod("equals#");
+        if (isObjectMethod(hashCode, objectHashCode)) hashCode = null;
+        if (isObjectMethod(equals, objectEquals)) equals = null;
+        if (hashCode == null && equals == null) return Kind.IDENTITY;
+        return new AgoMethodKind(hashCode, equals);
+    }
+
+    private boolean isObjectMethod(AgoFunction method, AgoFunction objectMethod) {
+        return method == null || method == objectMethod || method.getParent() == objectClass;
+    }
+}
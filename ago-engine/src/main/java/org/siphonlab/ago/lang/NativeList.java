@@ -0,0 +1,444 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.lang;
+
+import org.eclipse.collections.api.iterator.*;
+import org.eclipse.collections.impl.list.mutable.primitive.*;
+import org.siphonlab.ago.Instance;
+import org.siphonlab.ago.Slots;
+import org.siphonlab.ago.TypeCode;
+import org.siphonlab.ago.native_.NativeFrame;
+
+import java.util.Iterator;
+import java.util.List;
+
+import static org.siphonlab.ago.TypeCode.*;
+
+/**
+ * native payload of lang.ArrayList and lang.LinkedList, one implementation for each element type, chosen once by `create`.
+ * the natives call the overload of the element type, it's one virtual call for each access;
+ * the other overloads fall back to the boxed operations, which only BoxedList supports
+ */
+abstract class NativeList {
+
+    static NativeList ofArrayList(TypeCode elementType) {
+        return switch (elementType.value) {
+            case INT_VALUE -> new IntList();
+            case LONG_VALUE -> new LongList();
+            case FLOAT_VALUE -> new FloatList();
+            case DOUBLE_VALUE -> new DoubleList();
+            case BOOLEAN_VALUE -> new BooleanList();
+            case SHORT_VALUE -> new ShortList();
+            case BYTE_VALUE -> new ByteList();
+            case CHAR_VALUE -> new CharList();
+            case CLASS_REF_VALUE -> new ClassRefList();
+            case STRING_VALUE, OBJECT_VALUE -> new BoxedList(new java.util.ArrayList<>(), BoxedType.of(elementType));
+            default -> throw new IllegalArgumentException("unknown type: %s".formatted(elementType));
+        };
+    }
+
+    static NativeList ofLinkedList(TypeCode elementType) {
+        return new BoxedList(new java.util.LinkedList<>(), BoxedType.of(elementType));
+    }
+
+    abstract int size();
+
+    abstract void clear();
+
+    /**
+     * finish the frame with the element at index
+     */
+    abstract void get(NativeFrame callFrame, int index);
+
+    abstract Cursor iterator();
+
+    abstract void addBoxed(Object item);
+
+    boolean containsBoxed(Object item) {
+        throw new UnsupportedOperationException("%s not support boxed element".formatted(this.getClass().getSimpleName()));
+    }
+
+    boolean removeBoxed(Object item) {
+        throw new UnsupportedOperationException("%s not support boxed element".formatted(this.getClass().getSimpleName()));
+    }
+
+    void setBoxed(int index, Object item) {
+        throw new UnsupportedOperationException("%s not support boxed element".formatted(this.getClass().getSimpleName()));
+    }
+
+    void add(int item) { addBoxed(item); }
+    void add(long item) { addBoxed(item); }
+    void add(float item) { addBoxed(item); }
+    void add(double item) { addBoxed(item); }
+    void add(boolean item) { addBoxed(item); }
+    void add(short item) { addBoxed(item); }
+    void add(byte item) { addBoxed(item); }
+    void add(char item) { addBoxed(item); }
+    void add(String item) { addBoxed(item); }
+    void add(Instance<?> item) { addBoxed(item); }
+
+    boolean contains(int item) { return containsBoxed(item); }
+    boolean contains(long item) { return containsBoxed(item); }
+    boolean contains(float item) { return containsBoxed(item); }
+    boolean contains(double item) { return containsBoxed(item); }
+    boolean contains(boolean item) { return containsBoxed(item); }
+    boolean contains(short item) { return containsBoxed(item); }
+    boolean contains(byte item) { return containsBoxed(item); }
+    boolean contains(char item) { return containsBoxed(item); }
+    boolean contains(String item) { return containsBoxed(item); }
+    boolean contains(Instance<?> item) { return containsBoxed(item); }
+
+    boolean remove(int item) { return removeBoxed(item); }
+    boolean remove(long item) { return removeBoxed(item); }
+    boolean remove(float item) { return removeBoxed(item); }
+    boolean remove(double item) { return removeBoxed(item); }
+    boolean remove(boolean item) { return removeBoxed(item); }
+    boolean remove(short item) { return removeBoxed(item); }
+    boolean remove(byte item) { return removeBoxed(item); }
+    boolean remove(char item) { return removeBoxed(item); }
+    boolean remove(String item) { return removeBoxed(item); }
+    boolean remove(Instance<?> item) { return removeBoxed(item); }
+
+    void set(int index, int item) { setBoxed(index, item); }
+    void set(int index, long item) { setBoxed(index, item); }
+    void set(int index, float item) { setBoxed(index, item); }
+    void set(int index, double item) { setBoxed(index, item); }
+    void set(int index, boolean item) { setBoxed(index, item); }
+    void set(int index, short item) { setBoxed(index, item); }
+    void set(int index, byte item) { setBoxed(index, item); }
+    void set(int index, char item) { setBoxed(index, item); }
+    void set(int index, String item) { setBoxed(index, item); }
+    void set(int index, Instance<?> item) { setBoxed(index, item); }
+
+    /**
+     * payload of the iterator instance
+     */
+    abstract static class Cursor {
+        abstract boolean hasNext();
+
+        /**
+         * finish the frame with the next element
+         */
+        abstract void next(NativeFrame callFrame);
+
+        /**
+         * write the next element to the slot, for iter_next of for-in loops
+         */
+        abstract void next(Slots slots, int index);
+    }
+
+    static class IntList extends NativeList {
+        final IntArrayList list = new IntArrayList();
+
+        int size() { return list.size(); }
+
+        void clear() { list.clear(); }
+
+        void get(NativeFrame callFrame, int index) { callFrame.finishInt(list.get(index)); }
+
+        void add(int item) { list.add(item); }
+
+        void addBoxed(Object item) { list.add((Integer) item); }
+
+        boolean contains(int item) { return list.contains(item); }
+
+        boolean remove(int item) { return list.remove(item); }
+
+        void set(int index, int item) { list.set(index, item); }
+
+        Cursor iterator() {
+            IntIterator it = list.intIterator();
+            return new Cursor() {
+                boolean hasNext() { return it.hasNext(); }
+
+                void next(NativeFrame callFrame) { callFrame.finishInt(it.next()); }
+
+                void next(Slots slots, int index) { slots.setInt(index, it.next()); }
+            };
+        }
+    }
+
+    static final class LongList extends NativeList {
+        final LongArrayList list = new LongArrayList();
+
+        int size() { return list.size(); }
+
+        void clear() { list.clear(); }
+
+        void get(NativeFrame callFrame, int index) { callFrame.finishLong(list.get(index)); }
+
+        void add(long item) { list.add(item); }
+
+        void addBoxed(Object item) { list.add((Long) item); }
+
+        boolean contains(long item) { return list.contains(item); }
+
+        boolean remove(long item) { return list.remove(item); }
+
+        void set(int index, long item) { list.set(index, item); }
+
+        Cursor iterator() {
+            LongIterator it = list.longIterator();
+            return new Cursor() {
+                boolean hasNext() { return it.hasNext(); }
+
+                void next(NativeFrame callFrame) { callFrame.finishLong(it.next()); }
+
+                void next(Slots slots, int index) { slots.setLong(index, it.next()); }
+            };
+        }
+    }
+
+    static final class FloatList extends NativeList {
+        final FloatArrayList list = new FloatArrayList();
+
+        int size() { return list.size(); }
+
+        void clear() { list.clear(); }
+
+        void get(NativeFrame callFrame, int index) { callFrame.finishFloat(list.get(index)); }
+
+        void add(float item) { list.add(item); }
+
+        void addBoxed(Object item) { list.add((Float) item); }
+
+        boolean contains(float item) { return list.contains(item); }
+
+        boolean remove(float item) { return list.remove(item); }
+
+        void set(int index, float item) { list.set(index, item); }
+
+        Cursor iterator() {
+            FloatIterator it = list.floatIterator();
+            return new Cursor() {
+                boolean hasNext() { return it.hasNext(); }
+
+                void next(NativeFrame callFrame) { callFrame.finishFloat(it.next()); }
+
+                void next(Slots slots, int index) { slots.setFloat(index, it.next()); }
+            };
+        }
+    }
+
+    static final class DoubleList extends NativeList {
+        final DoubleArrayList list = new DoubleArrayList();
+
+        int size() { return list.size(); }
+
+        void clear() { list.clear(); }
+
+        void get(NativeFrame callFrame, int index) { callFrame.finishDouble(list.get(index)); }
+
+        void add(double item) { list.add(item); }
+
+        void addBoxed(Object item) { list.add((Double) item); }
+
+        boolean contains(double item) { return list.contains(item); }
+
+        boolean remove(double item) { return list.remove(item); }
+
+        void set(int index, double item) { list.set(index, item); }
+
+        Cursor iterator() {
+            DoubleIterator it = list.doubleIterator();
+            return new Cursor() {
+                boolean hasNext() { return it.hasNext(); }
+
+                void next(NativeFrame callFrame) { callFrame.finishDouble(it.next()); }
+
+                void next(Slots slots, int index) { slots.setDouble(index, it.next()); }
+            };
+        }
+    }
+
+    static final class BooleanList extends NativeList {
+        final BooleanArrayList list = new BooleanArrayList();
+
+        int size() { return list.size(); }
+
+        void clear() { list.clear(); }
+
+        void get(NativeFrame callFrame, int index) { callFrame.finishBoolean(list.get(index)); }
+
+        void add(boolean item) { list.add(item); }
+
+        void addBoxed(Object item) { list.add((Boolean) item); }
+
+        boolean contains(boolean item) { return list.contains(item); }
+
+        boolean remove(boolean item) { return list.remove(item); }
+
+        void set(int index, boolean item) { list.set(index, item); }
+
+        Cursor iterator() {
+            BooleanIterator it = list.booleanIterator();
+            return new Cursor() {
+                boolean hasNext() { return it.hasNext(); }
+
+                void next(NativeFrame callFrame) { callFrame.finishBoolean(it.next()); }
+
+                void next(Slots slots, int index) { slots.setBoolean(index, it.next()); }
+            };
+        }
+    }
+
+    static final class ShortList extends NativeList {
+        final ShortArrayList list = new ShortArrayList();
+
+        int size() { return list.size(); }
+
+        void clear() { list.clear(); }
+
+        void get(NativeFrame callFrame, int index) { callFrame.finishShort(list.get(index)); }
+
+        void add(short item) { list.add(item); }
+
+        void addBoxed(Object item) { list.add((Short) item); }
+
+        boolean contains(short item) { return list.contains(item); }
+
+        boolean remove(short item) { return list.remove(item); }
+
+        void set(int index, short item) { list.set(index, item); }
+
+        Cursor iterator() {
+            ShortIterator it = list.shortIterator();
+            return new Cursor() {
+                boolean hasNext() { return it.hasNext(); }
+
+                void next(NativeFrame callFrame) { callFrame.finishShort(it.next()); }
+
+                void next(Slots slots, int index) { slots.setShort(index, it.next()); }
+            };
+        }
+    }
+
+    static final class ByteList extends NativeList {
+        final ByteArrayList list = new ByteArrayList();
+
+        int size() { return list.size(); }
+
+        void clear() { list.clear(); }
+
+        void get(NativeFrame callFrame, int index) { callFrame.finishByte(list.get(index)); }
+
+        void add(byte item) { list.add(item); }
+
+        void addBoxed(Object item) { list.add((Byte) item); }
+
+        boolean contains(byte item) { return list.contains(item); }
+
+        boolean remove(byte item) { return list.remove(item); }
+
+        void set(int index, byte item) { list.set(index, item); }
+
+        Cursor iterator() {
+            ByteIterator it = list.byteIterator();
+            return new Cursor() {
+                boolean hasNext() { return it.hasNext(); }
+
+                void next(NativeFrame callFrame) { callFrame.finishByte(it.next()); }
+
+                void next(Slots slots, int index) { slots.setByte(index, it.next()); }
+            };
+        }
+    }
+
+    static final class CharList extends NativeList {
+        final CharArrayList list = new CharArrayList();
+
+        int size() { return list.size(); }
+
+        void clear() { list.clear(); }
+
+        void get(NativeFrame callFrame, int index) { callFrame.finishChar(list.get(index)); }
+
+        void add(char item) { list.add(item); }
+
+        void addBoxed(Object item) { list.add((Character) item); }
+
+        boolean contains(char item) { return list.contains(item); }
+
+        boolean remove(char item) { return list.remove(item); }
+
+        void set(int index, char item) { list.set(index, item); }
+
+        Cursor iterator() {
+            CharIterator it = list.charIterator();
+            return new Cursor() {
+                boolean hasNext() { return it.hasNext(); }
+
+                void next(NativeFrame callFrame) { callFrame.finishChar(it.next()); }
+
+                void next(Slots slots, int index) { slots.setChar(index, it.next()); }
+            };
+        }
+    }
+
+    // class ids
+    static final class ClassRefList extends IntList {
+        @Override
+        void get(NativeFrame callFrame, int index) { callFrame.finishClassRef(callFrame.getAgoEngine().getClass(list.get(index))); }
+
+        @Override
+        Cursor iterator() {
+            IntIterator it = list.intIterator();
+            return new Cursor() {
+                boolean hasNext() { return it.hasNext(); }
+
+                void next(NativeFrame callFrame) { callFrame.finishClassRef(callFrame.getAgoEngine().getClass(it.next())); }
+
+                void next(Slots slots, int index) { slots.setClassRef(index, it.next()); }
+            };
+        }
+    }
+
+    // string and object elements of ArrayList, and all elements of LinkedList
+    static final class BoxedList extends NativeList {
+        private final List<Object> list;
+        private final BoxedType elementType;
+
+        BoxedList(List<Object> list, BoxedType elementType) {
+            this.list = list;
+            this.elementType = elementType;
+        }
+
+        int size() { return list.size(); }
+
+        void clear() { list.clear(); }
+
+        void get(NativeFrame callFrame, int index) { elementType.finish(callFrame, list.get(index)); }
+
+        void addBoxed(Object item) { list.add(item); }
+
+        boolean containsBoxed(Object item) { return list.contains(item); }
+
+        boolean removeBoxed(Object item) { return list.remove(item); }
+
+        void setBoxed(int index, Object item) { list.set(index, item); }
+
+        Cursor iterator() {
+            Iterator<Object> it = list.iterator();
+            return new Cursor() {
+                boolean hasNext() { return it.hasNext(); }
+
+                void next(NativeFrame callFrame) { elementType.finish(callFrame, it.next()); }
+
+                void next(Slots slots, int index) { elementType.write(slots, index, it.next()); }
+            };
+        }
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.lang;
+
+import org.agrona.collections.Int2NullableObjectHashMap;
+import org.agrona.collections.Long2NullableObjectHashMap;
+import org.siphonlab.ago.AgoEngine;
+import org.siphonlab.ago.CallFrame;
+import org.siphonlab.ago.Instance;
+import org.siphonlab.ago.Slots;
+import org.siphonlab.ago.TypeCode;
+import org.siphonlab.ago.native_.NativeFrame;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.siphonlab.ago.TypeCode.*;
+
+/**
+ * native payload of HashMap, chosen once by `create` from the key and value types:
+ *   - IntKeyMap, Int2NullableObjectHashMap for int/short/byte/boolean/char/classref, and float stored with Float.floatToIntBits
+ *   - LongKeyMap, Long2NullableObjectHashMap for long, and double stored with Double.doubleToLongBits
+ *   - ObjectKeyMap, OpenHashTable for string, and object compared by ago hashCode/equals, see InstanceKeys
+ * values are boxed, and unboxed by the BoxedType of the value type
+ */
+abstract class NativeMap {
+
+    protected final BoxedType valueType;
+
+    NativeMap(BoxedType valueType) {
+        this.valueType = valueType;
+    }
+
+    static NativeMap create(AgoEngine engine, TypeCode keyType, TypeCode valueType) {
+        BoxedType boxedValueType = BoxedType.of(valueType);
+        return switch (keyType.value) {
+            case INT_VALUE -> new IntKeyMap(IntKey.INT, boxedValueType);
+            case SHORT_VALUE -> new IntKeyMap(IntKey.SHORT, boxedValueType);
+            case BYTE_VALUE -> new IntKeyMap(IntKey.BYTE, boxedValueType);
+            case BOOLEAN_VALUE -> new IntKeyMap(IntKey.BOOLEAN, boxedValueType);
+            case CHAR_VALUE -> new IntKeyMap(IntKey.CHAR, boxedValueType);
+            case CLASS_REF_VALUE -> new IntKeyMap(IntKey.CLASS_REF, boxedValueType);
+            case FLOAT_VALUE -> new IntKeyMap(IntKey.FLOAT, boxedValueType);
+            case LONG_VALUE -> new LongKeyMap(false, boxedValueType);
+            case DOUBLE_VALUE -> new LongKeyMap(true, boxedValueType);
+            case STRING_VALUE -> new ObjectKeyMap(OpenHashTable.STRING, BoxedType.STRING, boxedValueType);
+            case OBJECT_VALUE -> new ObjectKeyMap(new InstanceKeys(engine), BoxedType.OBJECT, boxedValueType);
+            default -> throw new IllegalArgumentException("unknown key type: %s".formatted(keyType));
+        };
+    }
+
+    abstract int size();
+
+    abstract void clear();
+
+    /**
+     * grow once, so `capacity` entries can be put without rehash
+     */
+    abstract void ensureCapacity(int capacity);
+
+    /**
+     * put all entries of a map created with the same key and value types
+     */
+    abstract void putAll(NativeMap other, CallFrame<?> caller);
+
+    Object get(int key) {
+        throw new UnsupportedOperationException("%s not support int key".formatted(this.getClass().getSimpleName()));
+    }
+
+    Object get(long key) {
+        throw new UnsupportedOperationException("%s not support long key".formatted(this.getClass().getSimpleName()));
+    }
+
+    Object get(Object key) {
+        throw new UnsupportedOperationException("%s not support object key".formatted(this.getClass().getSimpleName()));
+    }
+
+    void put(int key, Object value) {
+        throw new UnsupportedOperationException("%s not support int key".formatted(this.getClass().getSimpleName()));
+    }
+
+    void put(long key, Object value) {
+        throw new UnsupportedOperationException("%s not support long key".formatted(this.getClass().getSimpleName()));
+    }
+
+    void put(Object key, Object value) {
+        throw new UnsupportedOperationException("%s not support object key".formatted(this.getClass().getSimpleName()));
+    }
+
+    boolean containsKey(int key) {
+        throw new UnsupportedOperationException("%s not support int key".formatted(this.getClass().getSimpleName()));
+    }
+
+    boolean containsKey(long key) {
+        throw new UnsupportedOperationException("%s not support long key".formatted(this.getClass().getSimpleName()));
+    }
+
+    boolean containsKey(Object key) {
+        throw new UnsupportedOperationException("%s not support object key".formatted(this.getClass().getSimpleName()));
+    }
+
+    /**
+     * object key compared by value, the caller invokes ago hashCode/equals of the key
+     */
+    Object get(CallFrame<?> caller, Instance<?> key) {
+        return get((Object) key);
+    }
+
+    void put(CallFrame<?> caller, Instance<?> key, Object value) {
+        put((Object) key, value);
+    }
+
+    boolean containsKey(CallFrame<?> caller, Instance<?> key) {
+        return containsKey((Object) key);
+    }
+
+    boolean remove(CallFrame<?> caller, Instance<?> key) {
+        return remove((Object) key);
+    }
+
+    boolean remove(int key) {
+        throw new UnsupportedOperationException("%s not support int key".formatted(this.getClass().getSimpleName()));
+    }
+
+    boolean remove(long key) {
+        throw new UnsupportedOperationException("%s not support long key".formatted(this.getClass().getSimpleName()));
+    }
+
+    boolean remove(Object key) {
+        throw new UnsupportedOperationException("%s not support object key".formatted(this.getClass().getSimpleName()));
+    }
+
+    /**
+     * finish the frame with a value got, null for the default value
+     */
+    void finishValue(NativeFrame callFrame, Object value) {
+        valueType.finish(callFrame, value);
+    }
+
+    abstract void keys(NativeList ls);
+
+    abstract void values(NativeList ls);
+
+    abstract Cursor iterator();
+
+    /**
+     * payload of the iterator instance
+     */
+    abstract static class Cursor {
+        abstract boolean hasNext();
+
+        /**
+         * move to next entry, write key to slot 0 and value to slot 1 of the KeyValuePair
+         */
+        abstract void next(Slots slots);
+    }
+
+    /**
+     * the ago key type of an int key
+     */
+    abstract static class IntKey {
+        abstract void write(Slots slots, int index, int key);
+
+        abstract Object box(int key);
+
+        abstract void finish(NativeFrame callFrame, int key);
+
+        static final IntKey INT = new IntKey() {
+            void write(Slots slots, int index, int key) { slots.setInt(index, key); }
+            Object box(int key) { return key; }
+            void finish(NativeFrame callFrame, int key) { callFrame.finishInt(key); }
+        };
+
+        static final IntKey SHORT = new IntKey() {
+            void write(Slots slots, int index, int key) { slots.setShort(index, (short) key); }
+            Object box(int key) { return (short) key; }
+            void finish(NativeFrame callFrame, int key) { callFrame.finishShort((short) key); }
+        };
+
+        static final IntKey BYTE = new IntKey() {
+            void write(Slots slots, int index, int key) { slots.setByte(index, (byte) key); }
+            Object box(int key) { return (byte) key; }
+            void finish(NativeFrame callFrame, int key) { callFrame.finishByte((byte) key); }
+        };
+
+        static final IntKey BOOLEAN = new IntKey() {
+            void write(Slots slots, int index, int key) { slots.setBoolean(index, key != 0); }
+            Object box(int key) { return key != 0; }
+            void finish(NativeFrame callFrame, int key) { callFrame.finishBoolean(key != 0); }
+        };
+
+        static final IntKey CHAR = new IntKey() {
+            void write(Slots slots, int index, int key) { slots.setChar(index, (char) key); }
+            Object box(int key) { return (char) key; }
+            void finish(NativeFrame callFrame, int key) { callFrame.finishChar((char) key); }
+        };
+
+        static final IntKey CLASS_REF = new IntKey() {
+            void write(Slots slots, int index, int key) { slots.setClassRef(index, key); }
+            Object box(int key) { return key; }
+            void finish(NativeFrame callFrame, int key) { callFrame.finishClassRef(callFrame.getAgoEngine().getClass(key)); }
+        };
+
+        static final IntKey FLOAT = new IntKey() {
+            void write(Slots slots, int index, int key) { slots.setFloat(index, Float.intBitsToFloat(key)); }
+            Object box(int key) { return Float.intBitsToFloat(key); }
+            void finish(NativeFrame callFrame, int key) { callFrame.finishFloat(Float.intBitsToFloat(key)); }
+        };
+    }
+
+    static final class IntKeyMap extends NativeMap {
+        private Int2NullableObjectHashMap<Object> map = new Int2NullableObjectHashMap<>();
+        private final IntKey keyType;
+
+        IntKeyMap(IntKey keyType, BoxedType valueType) {
+            super(valueType);
+            this.keyType = keyType;
+        }
+
+        int size() { return map.size(); }
+
+        void clear() { map.clear(); }
+
+        void ensureCapacity(int capacity) {
+            if (capacity > map.resizeThreshold()) {
+                var larger = new Int2NullableObjectHashMap<>((int) Math.ceil(capacity / (double) map.loadFactor()), map.loadFactor());
+                larger.putAll(map);
+                map = larger;
+            }
+        }
+
+        void putAll(NativeMap other, CallFrame<?> caller) {
+            var from = ((IntKeyMap) other).map;
+            ensureCapacity(map.size() + from.size());
+            map.putAll(from);
+        }
+
+        Object get(int key) { return map.get(key); }
+
+        void put(int key, Object value) { map.put(key, value); }
+
+        boolean containsKey(int key) { return map.containsKey(key); }
+
+        boolean remove(int key) { return map.remove(key) != null; }
+
+        void keys(NativeList ls) {
+            var it = map.keySet().iterator();
+            while (it.hasNext()) {
+                ls.addBoxed(keyType.box(it.nextInt()));
+            }
+        }
+
+        void values(NativeList ls) {
+            for (Object value : map.values()) {
+                ls.addBoxed(value);
+            }
+        }
+
+        Cursor iterator() {
+            Iterator<Map.Entry<Integer, Object>> it = map.entrySet().iterator();
+            it = map.entrySet().iterator();       // Int2ObjectHashMap has some bug, the position place at last
+            var iterator = (Int2NullableObjectHashMap<Object>.EntryIterator) it;
+            return new Cursor() {
+                boolean hasNext() { return iterator.hasNext(); }
+
+                void next(Slots slots) {
+                    iterator.next();
+                    keyType.write(slots, 0, iterator.getIntKey());
+                    valueType.write(slots, 1, iterator.getValue());
+                }
+            };
+        }
+    }
+
+    static final class LongKeyMap extends NativeMap {
+        private Long2NullableObjectHashMap<Object> map = new Long2NullableObjectHashMap<>();
+        private final boolean doubleKey;
+
+        LongKeyMap(boolean doubleKey, BoxedType valueType) {
+            super(valueType);
+            this.doubleKey = doubleKey;
+        }
+
+        int size() { return map.size(); }
+
+        void clear() { map.clear(); }
+
+        void ensureCapacity(int capacity) {
+            if (capacity > map.resizeThreshold()) {
+                var larger = new Long2NullableObjectHashMap<>((int) Math.ceil(capacity / (double) map.loadFactor()), map.loadFactor());
+                larger.putAll(map);
+                map = larger;
+            }
+        }
+
+        void putAll(NativeMap other, CallFrame<?> caller) {
+            var from = ((LongKeyMap) other).map;
+            ensureCapacity(map.size() + from.size());
+            map.putAll(from);
+        }
+
+        Object get(long key) { return map.get(key); }
+
+        void put(long key, Object value) { map.put(key, value); }
+
+        boolean containsKey(long key) { return map.containsKey(key); }
+
+        boolean remove(long key) { return map.remove(key) != null; }
+
+        void keys(NativeList ls) {
+            var it = map.keySet().iterator();
+            while (it.hasNext()) {
+                long key = it.nextLong();
+                ls.addBoxed(doubleKey ? (Object) Double.longBitsToDouble(key) : (Object) key);
+            }
+        }
+
+        void values(NativeList ls) {
+            for (Object value : map.values()) {
+                ls.addBoxed(value);
+            }
+        }
+
+        Cursor iterator() {
+            Iterator<Map.Entry<Long, Object>> it = map.entrySet().iterator();
+            it = map.entrySet().iterator();       // same as Int2ObjectHashMap
+            var iterator = (Long2NullableObjectHashMap<Object>.EntryIterator) it;
+            return new Cursor() {
+                boolean hasNext() { return iterator.hasNext(); }
+
+                void next(Slots slots) {
+                    iterator.next();
+                    long key = iterator.getLongKey();
+                    if (doubleKey) slots.setDouble(0, Double.longBitsToDouble(key)); else slots.setLong(0, key);
+                    valueType.write(slots, 1, iterator.getValue());
+                }
+            };
+        }
+    }
+
+    // string and object keys, instance keys are hashed with the caller
+    static final class ObjectKeyMap extends NativeMap {
+        private final OpenHashTable table;
+        private final BoxedType keyType;
+
+        ObjectKeyMap(OpenHashTable.Hashing hashing, BoxedType keyType, BoxedType valueType) {
+            super(valueType);
+            this.table = new OpenHashTable(hashing, true);
+            this.keyType = keyType;
+        }
+
+        int size() { return table.size(); }
+
+        void clear() { table.clear(); }
+
+        void ensureCapacity(int capacity) { table.ensureCapacity(capacity); }
+
+        void putAll(NativeMap other, CallFrame<?> caller) { table.putAll(((ObjectKeyMap) other).table, caller); }
+
+        Object get(Object key) { return table.get(key, null); }
+
+        void put(Object key, Object value) { table.put(key, value, null); }
+
+        boolean containsKey(Object key) { return table.contains(key, null); }
+
+        boolean remove(Object key) { return table.remove(key, null); }
+
+        Object get(CallFrame<?> caller, Instance<?> key) { return table.get(key, caller); }
+
+        void put(CallFrame<?> caller, Instance<?> key, Object value) { table.put(key, value, caller); }
+
+        boolean containsKey(CallFrame<?> caller, Instance<?> key) { return table.contains(key, caller); }
+
+        boolean remove(CallFrame<?> caller, Instance<?> key) { return table.remove(key, caller); }
+
+        void keys(NativeList ls) {
+            for (int i = table.next(0); i >= 0; i = table.next(i + 1)) {
+                ls.addBoxed(table.keyAt(i));
+            }
+        }
+
+        void values(NativeList ls) {
+            for (int i = table.next(0); i >= 0; i = table.next(i + 1)) {
+                ls.addBoxed(table.valueAt(i));
+            }
+        }
+
+        Cursor iterator() {
+            return new Cursor() {
+                int slot = table.next(0);
+
+                boolean hasNext() { return slot >= 0; }
+
+                void next(Slots slots) {
+                    keyType.write(slots, 0, table.keyAt(slot));
+                    valueType.write(slots, 1, table.valueAt(slot));
+                    slot = table.next(slot + 1);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.lang;
+
+import org.agrona.collections.IntHashSet;
+import org.agrona.collections.LongHashSet;
+import org.siphonlab.ago.AgoEngine;
+import org.siphonlab.ago.CallFrame;
+import org.siphonlab.ago.Instance;
+import org.siphonlab.ago.Slots;
+import org.siphonlab.ago.TypeCode;
+import org.siphonlab.ago.native_.NativeFrame;
+
+import static org.siphonlab.ago.TypeCode.*;
+
+/**
+ * native payload of HashSet, chosen once by `create` from the element type like NativeMap:
+ *   - IntSet, agrona IntHashSet for int/short/byte/boolean/char/classref, and float stored with Float.floatToIntBits
+ *   - LongSet, agrona LongHashSet for long, and double stored with Double.doubleToLongBits
+ *   - ObjectSet, OpenHashTable for string, and object compared by ago hashCode/equals
+ * the iterator is a NativeList.Cursor, so HashSet iterates like the lists
+ */
+abstract class NativeSet {
+
+    static NativeSet create(AgoEngine engine, TypeCode elementType) {
+        return switch (elementType.value) {
+            case INT_VALUE -> new IntSet(NativeMap.IntKey.INT);
+            case SHORT_VALUE -> new IntSet(NativeMap.IntKey.SHORT);
+            case BYTE_VALUE -> new IntSet(NativeMap.IntKey.BYTE);
+            case BOOLEAN_VALUE -> new IntSet(NativeMap.IntKey.BOOLEAN);
+            case CHAR_VALUE -> new IntSet(NativeMap.IntKey.CHAR);
+            case CLASS_REF_VALUE -> new IntSet(NativeMap.IntKey.CLASS_REF);
+            case FLOAT_VALUE -> new IntSet(NativeMap.IntKey.FLOAT);
+            case LONG_VALUE -> new LongSet(false);
+            case DOUBLE_VALUE -> new LongSet(true);
+            case STRING_VALUE -> new ObjectSet(OpenHashTable.STRING, BoxedType.STRING);
+            case OBJECT_VALUE -> new ObjectSet(new InstanceKeys(engine), BoxedType.OBJECT);
+            default -> throw new IllegalArgumentException("unknown element type: %s".formatted(elementType));
+        };
+    }
+
+    abstract int size();
+
+    abstract void clear();
+
+    /**
+     * grow once, so `capacity` elements can be added without rehash
+     */
+    abstract void ensureCapacity(int capacity);
+
+    /**
+     * add all elements of a set created with the same element type
+     */
+    abstract void addAll(NativeSet other, CallFrame<?> caller);
+
+    abstract NativeList.Cursor iterator();
+
+    boolean add(int item) {
+        throw new UnsupportedOperationException("%s not support int element".formatted(this.getClass().getSimpleName()));
+    }
+
+    boolean add(long item) {
+        throw new UnsupportedOperationException("%s not support long element".formatted(this.getClass().getSimpleName()));
+    }
+
+    boolean add(CallFrame<?> caller, Object item) {
+        throw new UnsupportedOperationException("%s not support object element".formatted(this.getClass().getSimpleName()));
+    }
+
+    boolean contains(int item) {
+        throw new UnsupportedOperationException("%s not support int element".formatted(this.getClass().getSimpleName()));
+    }
+
+    boolean contains(long item) {
+        throw new UnsupportedOperationException("%s not support long element".formatted(this.getClass().getSimpleName()));
+    }
+
+    boolean contains(CallFrame<?> caller, Object item) {
+        throw new UnsupportedOperationException("%s not support object element".formatted(this.getClass().getSimpleName()));
+    }
+
+    boolean remove(int item) {
+        throw new UnsupportedOperationException("%s not support int element".formatted(this.getClass().getSimpleName()));
+    }
+
+    boolean remove(long item) {
+        throw new UnsupportedOperationException("%s not support long element".formatted(this.getClass().getSimpleName()));
+    }
+
+    boolean remove(CallFrame<?> caller, Object item) {
+        throw new UnsupportedOperationException("%s not support object element".formatted(this.getClass().getSimpleName()));
+    }
+
+    static final class IntSet extends NativeSet {
+        private IntHashSet set = new IntHashSet(8, 0.65f, false);     // a new iterator each time, iterators may nest
+        private final NativeMap.IntKey elementType;
+
+        IntSet(NativeMap.IntKey elementType) {
+            this.elementType = elementType;
+        }
+
+        int size() { return set.size(); }
+
+        void clear() { set.clear(); }
+
+        void ensureCapacity(int capacity) {
+            if (capacity > set.resizeThreshold()) {
+                var larger = new IntHashSet((int) Math.ceil(capacity / (double) set.loadFactor()), set.loadFactor(), false);
+                larger.addAll(set);
+                set = larger;
+            }
+        }
+
+        void addAll(NativeSet other, CallFrame<?> caller) {
+            IntHashSet from = ((IntSet) other).set;
+            ensureCapacity(set.size() + from.size());
+            set.addAll(from);
+        }
+
+        boolean add(int item) { return set.add(item); }
+
+        boolean contains(int item) { return set.contains(item); }
+
+        boolean remove(int item) { return set.remove(item); }
+
+        NativeList.Cursor iterator() {
+            IntHashSet.IntIterator it = set.iterator();
+            return new NativeList.Cursor() {
+                boolean hasNext() { return it.hasNext(); }
+
+                void next(NativeFrame callFrame) { elementType.finish(callFrame, it.nextValue()); }
+
+                void next(Slots slots, int index) { elementType.write(slots, index, it.nextValue()); }
+            };
+        }
+    }
+
+    static final class LongSet extends NativeSet {
+        private LongHashSet set = new LongHashSet(8, 0.65f, false);
+        private final boolean doubleElement;
+
+        LongSet(boolean doubleElement) {
+            this.doubleElement = doubleElement;
+        }
+
+        int size() { return set.size(); }
+
+        void clear() { set.clear(); }
+
+        void ensureCapacity(int capacity) {
+            if (capacity > set.resizeThreshold()) {
+                var larger = new LongHashSet((int) Math.ceil(capacity / (double) set.loadFactor()), set.loadFactor(), false);
+                larger.addAll(set);
+                set = larger;
+            }
+        }
+
+        void addAll(NativeSet other, CallFrame<?> caller) {
+            LongHashSet from = ((LongSet) other).set;
+            ensureCapacity(set.size() + from.size());
+            set.addAll(from);
+        }
+
+        boolean add(long item) { return set.add(item); }
+
+        boolean contains(long item) { return set.contains(item); }
+
+        boolean remove(long item) { return set.remove(item); }
+
+        NativeList.Cursor iterator() {
+            LongHashSet.LongIterator it = set.iterator();
+            return new NativeList.Cursor() {
+                boolean hasNext() { return it.hasNext(); }
+
+                void next(NativeFrame callFrame) {
+                    long item = it.nextValue();
+                    if (doubleElement) callFrame.finishDouble(Double.longBitsToDouble(item)); else callFrame.finishLong(item);
+                }
+
+                void next(Slots slots, int index) {
+                    long item = it.nextValue();
+                    if (doubleElement) slots.setDouble(index, Double.longBitsToDouble(item)); else slots.setLong(index, item);
+                }
+            };
+        }
+    }
+
+    // string and object elements, instance elements are hashed with the caller
+    static final class ObjectSet extends NativeSet {
+        private final OpenHashTable table;
+        private final BoxedType elementType;
+
+        ObjectSet(OpenHashTable.Hashing hashing, BoxedType elementType) {
+            this.table = new OpenHashTable(hashing, false);
+            this.elementType = elementType;
+        }
+
+        int size() { return table.size(); }
+
+        void clear() { table.clear(); }
+
+        void ensureCapacity(int capacity) { table.ensureCapacity(capacity); }
+
+        void addAll(NativeSet other, CallFrame<?> caller) { table.putAll(((ObjectSet) other).table, caller); }
+
+        boolean add(CallFrame<?> caller, Object item) { return table.put(item, null, caller); }
+
+        boolean contains(CallFrame<?> caller, Object item) { return table.contains(item, caller); }
+
+        boolean remove(CallFrame<?> caller, Object item) { return table.remove(item, caller); }
+
+        NativeList.Cursor iterator() {
+            return new NativeList.Cursor() {
+                int slot = table.next(0);
+
+                boolean hasNext() { return slot >= 0; }
+
+                void next(NativeFrame callFrame) {
+                    Object item = table.keyAt(slot);
+                    slot = table.next(slot + 1);
+                    elementType.finish(callFrame, item);
+                }
+
+                void next(Slots slots, int index) {
+                    Object item = table.keyAt(slot);
+                    slot = table.next(slot + 1);
+                    elementType.write(slots, index, item);
+                }
+            };
+        }
+    }
+}
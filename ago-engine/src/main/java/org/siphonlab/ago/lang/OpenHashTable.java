@@ -0,0 +1,249 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.lang;
+
+import org.siphonlab.ago.CallFrame;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * open addressing table of object keys for NativeMap and NativeSet, robin hood probing.
+ * keys, values and hashes are kept in parallel arrays, there is no node for each entry,
+ * and a removed entry shifts its followers back instead of leaving a tombstone.
+ * the hash of a key is computed once by Hashing and kept in `hashes`, growing the table never hashes a key again.
+ * slot of `hashes` is 0 for empty, so the spread hash 0 is stored as 1.
+ */
+final class OpenHashTable {
+
+    /**
+     * hash and compare keys, `caller` is for the ago hashCode/equals, null when there is no frame
+     */
+    interface Hashing {
+        int hash(Object key, CallFrame<?> caller);
+
+        boolean equals(Object key, Object stored, CallFrame<?> caller);
+    }
+
+    static final Hashing STRING = new Hashing() {
+        public int hash(Object key, CallFrame<?> caller) { return Objects.hashCode(key); }
+        public boolean equals(Object key, Object stored, CallFrame<?> caller) { return Objects.equals(key, stored); }
+    };
+
+    private static final float LOAD_FACTOR = 0.8f;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final Hashing hashing;
+    private final boolean withValues;
+
+    private int[] hashes;
+    private Object[] keys;
+    private Object[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+
+    /**
+     * @param withValues false for set
+     */
+    OpenHashTable(Hashing hashing, boolean withValues) {
+        this.hashing = hashing;
+        this.withValues = withValues;
+        allocate(MIN_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        hashes = new int[capacity];
+        keys = new Object[capacity];
+        values = withValues ? new Object[capacity] : null;
+        mask = capacity - 1;
+        resizeThreshold = capacity == MAX_CAPACITY ? MAX_CAPACITY : (int) (capacity * LOAD_FACTOR);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        if (size == 0) return;
+        Arrays.fill(hashes, 0);
+        Arrays.fill(keys, null);
+        if (withValues) Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * grow the table once, so `capacity` entries can be put without rehash
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity > resizeThreshold) {
+            rehash(tableSizeFor((int) Math.min(MAX_CAPACITY, (long) Math.ceil(capacity / (double) LOAD_FACTOR))));
+        }
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < n && capacity < MAX_CAPACITY) capacity <<= 1;
+        return capacity;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        h ^= h >>> 16;
+        return h == 0 ? 1 : h;
+    }
+
+    // how far the entry at slot from its home slot
+    private int distance(int hash, int slot) {
+        return (slot - (hash & mask)) & mask;
+    }
+
+    private int indexOf(int hash, Object key, CallFrame<?> caller) {
+        int slot = hash & mask;
+        for (int dist = 0; ; dist++) {
+            int h = hashes[slot];
+            if (h == 0 || distance(h, slot) < dist) return -1;    // a richer entry, the key would be placed before it
+            if (h == hash) {
+                Object stored = keys[slot];
+                if (stored == key || hashing.equals(key, stored, caller)) return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    int indexOf(Object key, CallFrame<?> caller) {
+        return indexOf(spread(hashing.hash(key, caller)), key, caller);
+    }
+
+    boolean contains(Object key, CallFrame<?> caller) {
+        return indexOf(key, caller) >= 0;
+    }
+
+    Object get(Object key, CallFrame<?> caller) {
+        int slot = indexOf(key, caller);
+        return slot < 0 ? null : values[slot];
+    }
+
+    /**
+     * @return false if the key exists, the value replaced
+     */
+    boolean put(Object key, Object value, CallFrame<?> caller) {
+        return put(spread(hashing.hash(key, caller)), key, value, caller);
+    }
+
+    private boolean put(int hash, Object key, Object value, CallFrame<?> caller) {
+        int slot = indexOf(hash, key, caller);
+        if (slot >= 0) {
+            if (withValues) values[slot] = value;
+            return false;
+        }
+        if (size >= resizeThreshold) rehash(Math.min(MAX_CAPACITY, hashes.length << 1));
+        insert(hash, key, value);
+        size++;
+        return true;
+    }
+
+    // place an absent key, take the slot of a richer entry and carry it forward
+    private void insert(int hash, Object key, Object value) {
+        int slot = hash & mask;
+        for (int dist = 0; ; dist++) {
+            int h = hashes[slot];
+            if (h == 0) {
+                hashes[slot] = hash;
+                keys[slot] = key;
+                if (withValues) values[slot] = value;
+                return;
+            }
+            int d = distance(h, slot);
+            if (d < dist) {
+                Object k = keys[slot];
+                hashes[slot] = hash;
+                keys[slot] = key;
+                hash = h;
+                key = k;
+                if (withValues) {
+                    Object v = values[slot];
+                    values[slot] = value;
+                    value = v;
+                }
+                dist = d;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldHashes = hashes;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != 0) insert(oldHashes[i], oldKeys[i], withValues ? oldValues[i] : null);
+        }
+    }
+
+    boolean remove(Object key, CallFrame<?> caller) {
+        int slot = indexOf(key, caller);
+        if (slot < 0) return false;
+        removeAt(slot);
+        return true;
+    }
+
+    // backward shift the followers until an empty slot or an entry at its home
+    private void removeAt(int slot) {
+        int next = (slot + 1) & mask;
+        while (hashes[next] != 0 && distance(hashes[next], next) != 0) {
+            hashes[slot] = hashes[next];
+            keys[slot] = keys[next];
+            if (withValues) values[slot] = values[next];
+            slot = next;
+            next = (next + 1) & mask;
+        }
+        hashes[slot] = 0;
+        keys[slot] = null;
+        if (withValues) values[slot] = null;
+        size--;
+    }
+
+    /**
+     * put all entries of a table with the same Hashing, the kept hashes are reused
+     */
+    void putAll(OpenHashTable other, CallFrame<?> caller) {
+        ensureCapacity(size + other.size);
+        for (int i = other.next(0); i >= 0; i = other.next(i + 1)) {
+            put(other.hashes[i], other.keys[i], other.withValues ? other.values[i] : null, caller);
+        }
+    }
+
+    /**
+     * @return the first used slot from `slot`, -1 if none
+     */
+    int next(int slot) {
+        for (int i = slot; i < hashes.length; i++) {
+            if (hashes[i] != 0) return i;
+        }
+        return -1;
+    }
+
+    Object keyAt(int slot) {
+        return keys[slot];
+    }
+
+    Object valueAt(int slot) {
+        return values[slot];
+    }
+}
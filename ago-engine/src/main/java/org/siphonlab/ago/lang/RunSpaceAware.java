@@ -18,6 +18,10 @@ package org.siphonlab.ago.lang;
 import org.siphonlab.ago.*;
 import org.siphonlab.ago.native_.NativeFrame;
 import org.siphonlab.ago.native_.NativeInstance;
+import org.siphonlab.ago.runtime.ObjectArrayInstance;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.siphonlab.ago.TypeCode.*;
 import static org.siphonlab.ago.TypeCode.BOOLEAN_VALUE;
@@ -86,22 +90,7 @@ public class RunSpaceAware {
             if(frame.getAgoClass().getResultClass() == runSpace.getAgoEngine().getClass("lang.Any")){
                 frame.finishObject(resultSlots.castAnyToObject(runSpace.getAgoEngine().getBoxer()));
             }
-            switch (resultSlots.getDataType()){
-                case VOID_VALUE:    frame.finishVoidAsync(); break;
-                case NULL_VALUE:    frame.finishNullAsync(); break;
-                case OBJECT_VALUE:  frame.finishObjectAsync(resultSlots.takeObjectValue()); break;
-                case INT_VALUE:     frame.finishIntAsync(resultSlots.getIntValue()); break;
-                case BYTE_VALUE:    frame.finishByteAsync(resultSlots.getByteValue()); break;
-                case SHORT_VALUE:   frame.finishShortAsync(resultSlots.getShortValue()); break;
-                case LONG_VALUE:    frame.finishLongAsync(resultSlots.getLongValue()); break;
-                case FLOAT_VALUE:   frame.finishFloatAsync(resultSlots.getFloatValue()); break;
-                case DOUBLE_VALUE:  frame.finishDoubleAsync(resultSlots.getDoubleValue()); break;
-                case BOOLEAN_VALUE: frame.finishBooleanAsync(resultSlots.getBooleanValue()); break;
-                case CHAR_VALUE:    frame.finishCharAsync(resultSlots.getCharValue()); break;
-                case STRING_VALUE:  frame.finishStringAsync(resultSlots.getStringValue()); break;
-                case CLASS_REF_VALUE: frame.finishClassRefAsync(resultSlots.getClassRefValue()); break;
-                default: throw new UnsupportedOperationException("unsupported data type " + resultSlots.getDataType());
-            }
+            finishAsync(frame, resultSlots);
         });
         runner.setRunSpace(runSpace);
         runSpace.start(runner);
@@ -116,6 +105,25 @@ public class RunSpaceAware {
         frame.finishVoid();
     }
 
+    private static void finishAsync(NativeFrame frame, ResultSlots resultSlots) {
+        switch (resultSlots.getDataType()){
+            case VOID_VALUE:    frame.finishVoidAsync(); break;
+            case NULL_VALUE:    frame.finishNullAsync(); break;
+            case OBJECT_VALUE:  frame.finishObjectAsync(resultSlots.takeObjectValue()); break;
+            case INT_VALUE:     frame.finishIntAsync(resultSlots.getIntValue()); break;
+            case BYTE_VALUE:    frame.finishByteAsync(resultSlots.getByteValue()); break;
+            case SHORT_VALUE:   frame.finishShortAsync(resultSlots.getShortValue()); break;
+            case LONG_VALUE:    frame.finishLongAsync(resultSlots.getLongValue()); break;
+            case FLOAT_VALUE:   frame.finishFloatAsync(resultSlots.getFloatValue()); break;
+            case DOUBLE_VALUE:  frame.finishDoubleAsync(resultSlots.getDoubleValue()); break;
+            case BOOLEAN_VALUE: frame.finishBooleanAsync(resultSlots.getBooleanValue()); break;
+            case CHAR_VALUE:    frame.finishCharAsync(resultSlots.getCharValue()); break;
+            case STRING_VALUE:  frame.finishStringAsync(resultSlots.getStringValue()); break;
+            case CLASS_REF_VALUE: frame.finishClassRefAsync(resultSlots.getClassRefValue()); break;
+            default: throw new UnsupportedOperationException("unsupported data type " + resultSlots.getDataType());
+        }
+    }
+
     private static RunSpace getAgoRunSpace(NativeFrame nativeFrame) {
         NativeInstance runSpaceInstance = (NativeInstance) nativeFrame.getParentScope();
         RunSpace runSpace = (RunSpace) runSpaceInstance.getNativePayload();
@@ -132,8 +140,146 @@ public class RunSpaceAware {
     public static void sleep(NativeFrame nativeFrame, int millisecond) {
         var runSpaceHost = nativeFrame.getRunSpace().getRunSpaceHost();
         nativeFrame.beginAsync();
-        Object obj = runSpaceHost.setTimer(millisecond, nativeFrame::finishVoidAsync);
-        nativeFrame.setPayload(obj);
+        TimerWheel.Timeout timeout = runSpaceHost.newTimeout(millisecond, nativeFrame::finishVoidAsync);
+        nativeFrame.onCancel(timeout::cancel);
+    }
+
+    // private fun awaitWithin<R>(milliseconds as int, function as Function<R>, timeoutException as TimeoutException) as R
+    // fork the function and finish with its result, or interrupt its RunSpace and raise the timeout exception if not completed in time
+    public static void awaitWithin(NativeFrame nativeFrame, int milliseconds, Instance<?> runnerFrame, Instance<?> timeoutException) {
+        var runSpace = nativeFrame.getRunSpace();
+        CallFrame<?> runner = (CallFrame<?>) runnerFrame;
+        var space = runSpace.createChildRunSpace(null);
+        var settled = new AtomicBoolean();
+        nativeFrame.beginAsync();
+        TimerWheel.Timeout timeout = runSpace.getRunSpaceHost().newTimeout(milliseconds, () -> {
+            if (settled.compareAndSet(false, true)) {
+                space.interrupt();
+                nativeFrame.finishExceptionAsync(timeoutException);
+            }
+        });
+        nativeFrame.onCancel(() -> {
+            if (settled.compareAndSet(false, true)) timeout.cancel();    // the child interrupted with this RunSpace
+        });
+        space.addCompleteListener(() -> {
+            if (settled.compareAndSet(false, true)) {
+                timeout.cancel();
+                if (space.getRunningState() == RunSpace.RunningState.ERROR) {
+                    nativeFrame.finishExceptionAsync(space.getException());
+                } else {
+                    finishAsync(nativeFrame, space.getResultSlots());
+                }
+            }
+        });
+        runner.setRunSpace(space);
+        space.start(new EntranceCallFrame<>(runner));
+    }
+
+    private static CallFrame<?>[] toFrames(Instance<?> functions) {
+        Instance<?>[] value = ((ObjectArrayInstance) functions).value;
+        var frames = new CallFrame<?>[value.length];
+        for (int i = 0; i < value.length; i++) {
+            frames[i] = (CallFrame<?>) value[i];
+        }
+        return frames;
+    }
+
+    // private fun forkAll(functions as Function<_>[])
+    public static void forkAll(NativeFrame nativeFrame, Instance<?> functions) {
+        nativeFrame.getRunSpace().forkAll(toFrames(functions), null);
+        nativeFrame.finishVoid();
+    }
+
+    // private fun spawnAll(functions as Function<_>[])
+    public static void spawnAll(NativeFrame nativeFrame, Instance<?> functions) {
+        nativeFrame.getRunSpace().spawnAll(toFrames(functions), null);
+        nativeFrame.finishVoid();
+    }
+
+    // private fun awaitAll(functions as Function<_>[]) as Object[]
+    // fork the functions and finish with their boxed results, or the exception of the first failed one
+    public static void awaitAll(NativeFrame nativeFrame, Instance<?> functions) {
+        var runSpace = nativeFrame.getRunSpace();
+        AgoEngine agoEngine = runSpace.getAgoEngine();
+        AgoClass resultType = nativeFrame.getAgoClass().getResultClass();
+        var frames = toFrames(functions);
+        nativeFrame.beginAsync();
+        runSpace.forkAll(frames, () -> {
+            ObjectArrayInstance results = agoEngine.createObjectArray(resultType, frames.length);
+            for (int i = 0; i < frames.length; i++) {
+                RunSpace space = frames[i].getRunSpace();     // may complete before forkAll returns
+                if (space.getRunningState() == RunSpace.RunningState.ERROR) {
+                    nativeFrame.finishExceptionAsync(space.getException());
+                    return;
+                }
+                results.value[i] = space.getResultSlots().castAnyToObject(agoEngine.getBoxer());
+            }
+            nativeFrame.finishObjectAsync(results);
+        });
+    }
+
+    // private fun joinAllOf(functions as Function<_>[]) as Object[]
+    // task scope waits all the functions, the first failure interrupts the others and is raised
+    public static void joinAll(NativeFrame nativeFrame, Instance<?> functions) {
+        var runSpace = nativeFrame.getRunSpace();
+        AgoEngine agoEngine = runSpace.getAgoEngine();
+        AgoClass resultType = nativeFrame.getAgoClass().getResultClass();
+        var frames = toFrames(functions);
+        var settled = new AtomicBoolean();
+        nativeFrame.beginAsync();
+        nativeFrame.onCancel(() -> settled.set(true));     // the children interrupted with this RunSpace
+        runSpace.forkAll(frames, forked -> {
+            if (forked.getRunningState() == RunSpace.RunningState.ERROR && settled.compareAndSet(false, true)) {
+                interruptAll(frames);
+                nativeFrame.finishExceptionAsync(forked.getException());
+            }
+        }, () -> {
+            if (settled.compareAndSet(false, true)) {
+                ObjectArrayInstance results = agoEngine.createObjectArray(resultType, frames.length);
+                for (int i = 0; i < frames.length; i++) {
+                    results.value[i] = frames[i].getRunSpace().getResultSlots().castAnyToObject(agoEngine.getBoxer());
+                }
+                nativeFrame.finishObjectAsync(results);
+            }
+        });
+    }
+
+    // private fun firstSuccessOf<R>(functions as Function<R>[]) as R
+    // task scope takes the result of the first succeeded function and interrupts the others,
+    // raises the exception of the last failed one if none succeeded
+    public static void firstSuccess(NativeFrame nativeFrame, Instance<?> functions) {
+        var runSpace = nativeFrame.getRunSpace();
+        var frames = toFrames(functions);
+        var settled = new AtomicBoolean();
+        var lastException = new AtomicReference<Instance<?>>();
+        nativeFrame.beginAsync();
+        nativeFrame.onCancel(() -> settled.set(true));
+        runSpace.forkAll(frames, forked -> {
+            byte state = forked.getRunningState();
+            if (state == RunSpace.RunningState.DONE) {
+                if (settled.compareAndSet(false, true)) {
+                    interruptAll(frames);
+                    finishAsync(nativeFrame, forked.getResultSlots());
+                }
+            } else if (state == RunSpace.RunningState.ERROR) {
+                lastException.set(forked.getException());
+            }
+        }, () -> {
+            if (settled.compareAndSet(false, true)) {
+                if (lastException.get() != null) {
+                    nativeFrame.finishExceptionAsync(lastException.get());
+                } else {
+                    nativeFrame.finishNullAsync();      // no function, or all interrupted by others
+                }
+            }
+        });
+    }
+
+    // a completed one keeps its state, see RunSpace.interrupt
+    private static void interruptAll(CallFrame<?>[] frames) {
+        for (CallFrame<?> frame : frames) {
+            frame.getRunSpace().interrupt();
+        }
     }
 
     public static void forkContextSample(NativeFrame nativeFrame) {
@@ -23,14 +23,16 @@ import org.siphonlab.ago.AgoClass;
 import org.siphonlab.ago.native_.NativeFrame;
 
 import java.io.StringReader;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.regex.Pattern;
 
 public class Trace {
 
-    private static List<String> lines = new LinkedList<>();
+    // printed by RunSpaces on different threads of the host
+    private static final List<String> lines = Collections.synchronizedList(new ArrayList<>());
 
     public static void print_str(NativeFrame frame, String text){
         lines.addAll(IOUtils.readLines(new StringReader(text)));
@@ -89,6 +91,7 @@ public class Trace {
     }
 
     public static boolean outputted(String... expected){
+        List<String> lines = snapshot();
         if(lines.size() == expected.length){
             for (int i = 0; i < expected.length; i++) {
                 if(!Objects.equals(lines.get(i), expected[i])){
@@ -101,15 +104,28 @@ public class Trace {
         return true;
     }
 
+    /**
+     * the lines printed in any order, for RunSpaces running in parallel
+     */
+    public static boolean outputtedInAnyOrder(String... expected){
+        List<String> lines = snapshot();
+        List<String> expectedLines = new ArrayList<>(List.of(expected));
+        Collections.sort(lines);
+        Collections.sort(expectedLines);
+        return lines.equals(expectedLines);
+    }
+
     public static boolean startsWith(String s) {
+        List<String> lines = snapshot();
         return (lines.size() == 1 && lines.get(0).startsWith(s));
     }
 
     public static void printOutput(){
-        System.out.println(lines.stream().map(s -> '"' + s + '"').toList());
+        System.out.println(snapshot().stream().map(s -> '"' + s + '"').toList());
     }
 
     public static boolean outputtedMatch(String... expected) {
+        List<String> lines = snapshot();
         if (lines.size() == expected.length) {
             for (int i = 0; i < expected.length; i++) {
                 String regex = expected[i];
@@ -126,4 +142,21 @@ public class Trace {
         return true;
     }
 
+    /**
+     * the lines printed so far, to compare runs of an example in different engine options
+     */
+    public static List<String> getLines() {
+        return snapshot();
+    }
+
+    public static void clear() {
+        lines.clear();
+    }
+
+    private static List<String> snapshot() {
+        synchronized (lines) {
+            return new ArrayList<>(lines);
+        }
+    }
+
 }
@@ -23,6 +23,12 @@ public class NativeFrame extends CallFrame<AgoNativeFunction> {
     protected final AgoEngine engine;
     private CallFrame<?> entrance;
     private Object payload;
+    private volatile Runnable cancelHook;
+
+    private boolean inline;                 // run by runInline, the synchronous finish returns to the caller loop
+    private boolean returnedInline;
+    private Slots resultTarget;             // slots of caller, null for ResultSlots
+    private int resultTargetSlot;
 
     public NativeFrame(AgoEngine engine, Slots slots, AgoNativeFunction agoClass) {
         super(slots, agoClass);
@@ -38,6 +44,40 @@ public class NativeFrame extends CallFrame<AgoNativeFunction> {
         this.entrance = self;
     }
 
+    /**
+     * the fast path of invoke_v, run in the evaluation loop of caller.
+     * a synchronous finish writes the result to `resultTarget[resultTargetSlot]` directly, without ResultSlots and the accept instruction,
+     * or to ResultSlots as usual if resultTarget is null
+     * @return true if the native finished synchronously, false if it went async or threw, the caller exits as a normal invoke
+     */
+    public boolean runInline(Slots resultTarget, int resultTargetSlot){
+        this.inline = true;
+        this.returnedInline = false;
+        this.resultTarget = resultTarget;
+        this.resultTargetSlot = resultTargetSlot;
+        try {
+            nativeFunctionCaller.invoke(this, this.slots);
+        } finally {
+            this.inline = false;
+            this.resultTarget = null;
+        }
+        return returnedInline;
+    }
+
+    /**
+     * reset a recycled frame before reuse, see RunSpace.acquireNativeFrame
+     */
+    public void reset(){
+        slots.clear();
+        caller = null;
+        runSpace = null;
+        stateHandler = null;
+        parentScope = null;
+        entrance = null;
+        payload = null;
+        cancelHook = null;
+    }
+
     public void beginAsync(){
         this.getRunSpace().waitResult();        // after that currCallFrame is still me
     }
@@ -165,6 +205,149 @@ public class NativeFrame extends CallFrame<AgoNativeFunction> {
         callerRunSpace.acceptExceptionByAsync(exception);
     }
 
+    @Override
+    public void finishVoid() {
+        if (resultTarget != null) {
+            resultTarget.setVoid(resultTargetSlot, null);
+            returnedInline = true;
+        } else {
+            super.finishVoid();
+            returnedInline = inline;
+        }
+    }
+
+    @Override
+    public void finishNull() {
+        if (resultTarget != null) {
+            resultTarget.setObject(resultTargetSlot, null);
+            returnedInline = true;
+        } else {
+            super.finishNull();
+            returnedInline = inline;
+        }
+    }
+
+    @Override
+    public void finishBoolean(boolean result) {
+        if (resultTarget != null) {
+            resultTarget.setBoolean(resultTargetSlot, result);
+            returnedInline = true;
+        } else {
+            super.finishBoolean(result);
+            returnedInline = inline;
+        }
+    }
+
+    @Override
+    public void finishByte(byte result) {
+        if (resultTarget != null) {
+            resultTarget.setByte(resultTargetSlot, result);
+            returnedInline = true;
+        } else {
+            super.finishByte(result);
+            returnedInline = inline;
+        }
+    }
+
+    @Override
+    public void finishShort(short result) {
+        if (resultTarget != null) {
+            resultTarget.setShort(resultTargetSlot, result);
+            returnedInline = true;
+        } else {
+            super.finishShort(result);
+            returnedInline = inline;
+        }
+    }
+
+    @Override
+    public void finishInt(int result) {
+        if (resultTarget != null) {
+            resultTarget.setInt(resultTargetSlot, result);
+            returnedInline = true;
+        } else {
+            super.finishInt(result);
+            returnedInline = inline;
+        }
+    }
+
+    @Override
+    public void finishLong(long result) {
+        if (resultTarget != null) {
+            resultTarget.setLong(resultTargetSlot, result);
+            returnedInline = true;
+        } else {
+            super.finishLong(result);
+            returnedInline = inline;
+        }
+    }
+
+    @Override
+    public void finishFloat(float result) {
+        if (resultTarget != null) {
+            resultTarget.setFloat(resultTargetSlot, result);
+            returnedInline = true;
+        } else {
+            super.finishFloat(result);
+            returnedInline = inline;
+        }
+    }
+
+    @Override
+    public void finishDouble(double result) {
+        if (resultTarget != null) {
+            resultTarget.setDouble(resultTargetSlot, result);
+            returnedInline = true;
+        } else {
+            super.finishDouble(result);
+            returnedInline = inline;
+        }
+    }
+
+    @Override
+    public void finishChar(char result) {
+        if (resultTarget != null) {
+            resultTarget.setChar(resultTargetSlot, result);
+            returnedInline = true;
+        } else {
+            super.finishChar(result);
+            returnedInline = inline;
+        }
+    }
+
+    @Override
+    public void finishObject(Instance<?> result) {
+        if (resultTarget != null) {
+            resultTarget.setObject(resultTargetSlot, result);
+            returnedInline = true;
+        } else {
+            super.finishObject(result);
+            returnedInline = inline;
+        }
+    }
+
+    @Override
+    public void finishString(String result) {
+        if (resultTarget != null) {
+            resultTarget.setString(resultTargetSlot, result);
+            returnedInline = true;
+        } else {
+            super.finishString(result);
+            returnedInline = inline;
+        }
+    }
+
+    @Override
+    public void finishClassRef(AgoClass result) {
+        if (resultTarget != null) {
+            resultTarget.setClassRef(resultTargetSlot, result.getClassId());
+            returnedInline = true;
+        } else {
+            super.finishClassRef(result);
+            returnedInline = inline;
+        }
+    }
+
     @Override
     public SourceLocation resolveSourceLocation() {
         return this.agoClass.getSourceLocation();
@@ -188,8 +371,18 @@ public class NativeFrame extends CallFrame<AgoNativeFunction> {
         // native frame not support yet
     }
 
+    /**
+     * the async native releases what it waits on when interrupted, i.e. cancel a timer or close a connection,
+     * the frame won't be finished after the hook runs
+     */
+    public void onCancel(Runnable cancelHook) {
+        this.cancelHook = cancelHook;
+    }
+
     @Override
     public void interrupt() {
-        // native frame not support yet
+        Runnable hook = this.cancelHook;
+        this.cancelHook = null;
+        if (hook != null) hook.run();
     }
 }
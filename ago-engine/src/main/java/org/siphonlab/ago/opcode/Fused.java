@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.opcode;
+
+import org.siphonlab.ago.opcode.arithmetic.Add;
+import org.siphonlab.ago.opcode.compare.*;
+
+/**
+ * superinstructions, an instruction fused with the jump follows it.
+ * a fused instruction keeps the operands and size of the original one, the following jump stays in the code,
+ * so labels target at the jump still work, the fused instruction evaluates the jump by itself and skip it.
+ */
+public class Fused {
+    public static final int KIND_FUSED = 0x34_000000;
+    public static final int OP                  = 0x34;
+
+    // lt_jf_i_vvc(target slot, slot, const), followed by jump_f_B_vc(target slot, address)
+    public static final int lt_jf_i_vvc = 0x34_0a_01_03;
+    // lt_jf_i_vvv(target slot, slot1, slot2), followed by jump_f_B_vc(target slot, address)
+    public static final int lt_jf_i_vvv = 0x34_0a_02_03;
+    public static final int le_jf_i_vvc = 0x34_0a_03_03;
+    public static final int le_jf_i_vvv = 0x34_0a_04_03;
+    public static final int gt_jf_i_vvc = 0x34_0a_05_03;
+    public static final int gt_jf_i_vvv = 0x34_0a_06_03;
+    public static final int ge_jf_i_vvc = 0x34_0a_07_03;
+    public static final int ge_jf_i_vvv = 0x34_0a_08_03;
+    public static final int eq_jf_i_vvc = 0x34_0a_09_03;
+    public static final int eq_jf_i_vvv = 0x34_0a_0a_03;
+    public static final int ne_jf_i_vvc = 0x34_0a_0b_03;
+    public static final int ne_jf_i_vvv = 0x34_0a_0c_03;
+
+    // add_jump_i_vc(slot, const), followed by jump_c(address), the `i++` at the end of loop
+    public static final int add_jump_i_vc = 0x34_0a_0d_02;
+
+    /**
+     * @return the fused instruction, or 0 if the pair can't fuse
+     */
+    public static int fuse(int instruction, int nextInstruction) {
+        if (nextInstruction == Jump.jump_f_B_vc) {
+            return switch (instruction) {
+                case LittleThan.lt_i_vvc -> lt_jf_i_vvc;
+                case LittleThan.lt_i_vvv -> lt_jf_i_vvv;
+                case LittleEquals.le_i_vvc -> le_jf_i_vvc;
+                case LittleEquals.le_i_vvv -> le_jf_i_vvv;
+                case GreaterThan.gt_i_vvc -> gt_jf_i_vvc;
+                case GreaterThan.gt_i_vvv -> gt_jf_i_vvv;
+                case GreaterEquals.ge_i_vvc -> ge_jf_i_vvc;
+                case GreaterEquals.ge_i_vvv -> ge_jf_i_vvv;
+                case Equals.equals_i_vvc -> eq_jf_i_vvc;
+                case Equals.equals_i_vvv -> eq_jf_i_vvv;
+                case NotEquals.ne_i_vvc -> ne_jf_i_vvc;
+                case NotEquals.ne_i_vvv -> ne_jf_i_vvv;
+                default -> 0;
+            };
+        } else if (nextInstruction == Jump.jump_c && instruction == Add.add_i_vc) {
+            return add_jump_i_vc;
+        }
+        return 0;
+    }
+
+    /**
+     * @return the original instruction before fused
+     */
+    public static int unfuse(int code) {
+        return switch (code) {
+            case lt_jf_i_vvc -> LittleThan.lt_i_vvc;
+            case lt_jf_i_vvv -> LittleThan.lt_i_vvv;
+            case le_jf_i_vvc -> LittleEquals.le_i_vvc;
+            case le_jf_i_vvv -> LittleEquals.le_i_vvv;
+            case gt_jf_i_vvc -> GreaterThan.gt_i_vvc;
+            case gt_jf_i_vvv -> GreaterThan.gt_i_vvv;
+            case ge_jf_i_vvc -> GreaterEquals.ge_i_vvc;
+            case ge_jf_i_vvv -> GreaterEquals.ge_i_vvv;
+            case eq_jf_i_vvc -> Equals.equals_i_vvc;
+            case eq_jf_i_vvv -> Equals.equals_i_vvv;
+            case ne_jf_i_vvc -> NotEquals.ne_i_vvc;
+            case ne_jf_i_vvv -> NotEquals.ne_i_vvv;
+            case add_jump_i_vc -> Add.add_i_vc;
+            default -> throw new IllegalArgumentException("illegal code " + Integer.toHexString(code));
+        };
+    }
+
+    public static String getName(int code) {
+        return switch (code) {
+            case lt_jf_i_vvc -> "lt_jf_i_vvc";
+            case lt_jf_i_vvv -> "lt_jf_i_vvv";
+            case le_jf_i_vvc -> "le_jf_i_vvc";
+            case le_jf_i_vvv -> "le_jf_i_vvv";
+            case gt_jf_i_vvc -> "gt_jf_i_vvc";
+            case gt_jf_i_vvv -> "gt_jf_i_vvv";
+            case ge_jf_i_vvc -> "ge_jf_i_vvc";
+            case ge_jf_i_vvv -> "ge_jf_i_vvv";
+            case eq_jf_i_vvc -> "eq_jf_i_vvc";
+            case eq_jf_i_vvv -> "eq_jf_i_vvv";
+            case ne_jf_i_vvc -> "ne_jf_i_vvc";
+            case ne_jf_i_vvv -> "ne_jf_i_vvv";
+            case add_jump_i_vc -> "add_jump_i_vc";
+            default -> throw new IllegalArgumentException("illegal code " + Integer.toHexString(code));
+        };
+    }
+}
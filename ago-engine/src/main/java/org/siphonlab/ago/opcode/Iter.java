@@ -0,0 +1,38 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.opcode;
+
+/**
+ * for-in over the native collections of lang, walks the native payload with a cursor kept in a slot,
+ * there is no iterator instance and no frame for hasNext()/next(), see org.siphonlab.ago.lang.ForInCursor
+ */
+public class Iter {
+    public static final int KIND_ITER = 0x35_000000;
+    public static final int OP                  = 0x35;
+
+    // iter_init_vv(cursor slot, collection slot), null cursor for null collection
+    public static final int iter_init_vv = 0x35_00_01_02;
+    // iter_next_vvc(element slot, cursor slot, exit address), write the next element, or jump to exit when no more
+    public static final int iter_next_vvc = 0x35_00_02_03;
+
+    public static String getName(int code) {
+        return switch (code) {
+            case iter_init_vv -> "iter_init_vv";
+            case iter_next_vvc -> "iter_next_vvc";
+            default -> throw new IllegalArgumentException("illegal code " + Integer.toHexString(code));
+        };
+    }
+}
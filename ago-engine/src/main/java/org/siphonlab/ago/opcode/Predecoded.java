@@ -0,0 +1,205 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.opcode;
+
+import org.siphonlab.ago.opcode.arithmetic.Add;
+import org.siphonlab.ago.opcode.arithmetic.Multiply;
+import org.siphonlab.ago.opcode.arithmetic.Subtract;
+import org.siphonlab.ago.opcode.compare.*;
+
+/**
+ * pre-decoded instruction stream.
+ * the instruction at code[pc] is resolved to a dense handler id at decoded[pc] when the function loaded,
+ * so the interpreter dispatches hot instructions with one tableswitch instead of switch kind then switch instruction.
+ * operand positions are unchanged, pc, jump address, source map and persisted frames needn't know it.
+ */
+public class Predecoded {
+
+    // not predecoded, dispatch by instruction kind
+    public static final byte GENERIC = 0;
+
+    public static final byte CONST_I_VC = 1;
+    public static final byte CONST_B_VC = 2;
+
+    public static final byte MOVE_I_VV = 3;
+    public static final byte MOVE_B_VV = 4;
+    public static final byte MOVE_L_VV = 5;
+    public static final byte MOVE_D_VV = 6;
+    public static final byte MOVE_O_VV = 7;
+    public static final byte MOVE_FLD_I_OVV = 8;
+    public static final byte MOVE_FLD_I_VOV = 9;
+    public static final byte MOVE_FLD_O_OVV = 10;
+    public static final byte MOVE_FLD_O_VOV = 11;
+
+    public static final byte ADD_I_VC = 12;
+    public static final byte ADD_I_VV = 13;
+    public static final byte ADD_I_VVC = 14;
+    public static final byte ADD_I_VVV = 15;
+    public static final byte SUB_I_VC = 16;
+    public static final byte SUB_I_VVC = 17;
+    public static final byte SUB_I_VVV = 18;
+    public static final byte MUL_I_VVC = 19;
+    public static final byte MUL_I_VVV = 20;
+    public static final byte ADD_L_VVV = 21;
+    public static final byte ADD_D_VVV = 22;
+
+    public static final byte EQ_I_VVC = 23;
+    public static final byte EQ_I_VVV = 24;
+    public static final byte NE_I_VVC = 25;
+    public static final byte NE_I_VVV = 26;
+    public static final byte LT_I_VVC = 27;
+    public static final byte LT_I_VVV = 28;
+    public static final byte LE_I_VVC = 29;
+    public static final byte LE_I_VVV = 30;
+    public static final byte GT_I_VVC = 31;
+    public static final byte GT_I_VVV = 32;
+    public static final byte GE_I_VVC = 33;
+    public static final byte GE_I_VVV = 34;
+
+    public static final byte JUMP_C = 35;
+    public static final byte JUMP_T_B_VC = 36;
+    public static final byte JUMP_F_B_VC = 37;
+
+    public static final byte LT_JF_I_VVC = 38;
+    public static final byte LT_JF_I_VVV = 39;
+    public static final byte LE_JF_I_VVC = 40;
+    public static final byte LE_JF_I_VVV = 41;
+    public static final byte GT_JF_I_VVC = 42;
+    public static final byte GT_JF_I_VVV = 43;
+    public static final byte GE_JF_I_VVC = 44;
+    public static final byte GE_JF_I_VVV = 45;
+    public static final byte EQ_JF_I_VVC = 46;
+    public static final byte EQ_JF_I_VVV = 47;
+    public static final byte NE_JF_I_VVC = 48;
+    public static final byte NE_JF_I_VVV = 49;
+    public static final byte ADD_JUMP_I_VC = 50;
+
+    // invoke_v that compiler found the frame only invoked and result accepted, still evaluated by evaluateInvoke
+    public static final byte INVOKE_V_LOCAL = 51;
+
+    // new_method_voIm, still evaluated by evaluateNew, the 2 bytes after the handler hold the call site id, see callSiteId
+    public static final byte NEW_METHOD_VOIM = 52;
+
+    // call sites ids a function can assign, the rest new_method_voIm resolve without inline cache
+    public static final int MAX_CALL_SITES = 0x10000;
+
+    /**
+     * @param code the transformed code of a function
+     * @return handler ids, same length as code, operand positions are GENERIC except the call site id of new_method_voIm
+     */
+    public static byte[] decode(int[] code) {
+        if (code == null) return null;
+        byte[] decoded = new byte[code.length];
+        int callSites = 0;
+        for (int pc = 0; pc < code.length; pc += 1 + (code[pc] & OpCode.SIZE_MASK)) {
+            if (code[pc] == New.new_method_voIm && callSites < MAX_CALL_SITES) {
+                // ids are assigned in pc order, InterfaceInlineCache.allocate creates the caches in the same order
+                decoded[pc] = NEW_METHOD_VOIM;
+                decoded[pc + 1] = (byte) (callSites >> 8);
+                decoded[pc + 2] = (byte) callSites;
+                callSites++;
+            } else {
+                decoded[pc] = handlerOf(code[pc]);
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * @param pc address of a new_method_voIm which decoded as NEW_METHOD_VOIM
+     * @return index of the inline cache of the call site in AgoFunction.getInlineCaches
+     */
+    public static int callSiteId(byte[] decoded, int pc) {
+        return (decoded[pc + 1] & 0xff) << 8 | decoded[pc + 2] & 0xff;
+    }
+
+    /**
+     * @param code the transformed code of a function
+     * @param localInvokes addresses of invoke_v marked by compiler, see escape analysis of compiler
+     * @return handler ids, same length as code, see decode(int[])
+     */
+    public static byte[] decode(int[] code, int[] localInvokes) {
+        byte[] decoded = decode(code);
+        if (decoded != null && localInvokes != null) {
+            for (int address : localInvokes) {
+                if (code[address] == Invoke.invoke_v) decoded[address] = INVOKE_V_LOCAL;
+            }
+        }
+        return decoded;
+    }
+
+    public static byte handlerOf(int instruction) {
+        return switch (instruction) {
+            case Const.const_i_vc -> CONST_I_VC;
+            case Const.const_B_vc -> CONST_B_VC;
+
+            case Move.move_i_vv -> MOVE_I_VV;
+            case Move.move_B_vv -> MOVE_B_VV;
+            case Move.move_l_vv -> MOVE_L_VV;
+            case Move.move_d_vv -> MOVE_D_VV;
+            case Move.move_o_vv -> MOVE_O_VV;
+            case Move.move_fld_i_ovv -> MOVE_FLD_I_OVV;
+            case Move.move_fld_i_vov -> MOVE_FLD_I_VOV;
+            case Move.move_fld_o_ovv -> MOVE_FLD_O_OVV;
+            case Move.move_fld_o_vov -> MOVE_FLD_O_VOV;
+
+            case Add.add_i_vc -> ADD_I_VC;
+            case Add.add_i_vv -> ADD_I_VV;
+            case Add.add_i_vvc -> ADD_I_VVC;
+            case Add.add_i_vvv -> ADD_I_VVV;
+            case Subtract.sub_i_vc -> SUB_I_VC;
+            case Subtract.sub_i_vvc -> SUB_I_VVC;
+            case Subtract.sub_i_vvv -> SUB_I_VVV;
+            case Multiply.mul_i_vvc -> MUL_I_VVC;
+            case Multiply.mul_i_vvv -> MUL_I_VVV;
+            case Add.add_l_vvv -> ADD_L_VVV;
+            case Add.add_d_vvv -> ADD_D_VVV;
+
+            case Equals.equals_i_vvc -> EQ_I_VVC;
+            case Equals.equals_i_vvv -> EQ_I_VVV;
+            case NotEquals.ne_i_vvc -> NE_I_VVC;
+            case NotEquals.ne_i_vvv -> NE_I_VVV;
+            case LittleThan.lt_i_vvc -> LT_I_VVC;
+            case LittleThan.lt_i_vvv -> LT_I_VVV;
+            case LittleEquals.le_i_vvc -> LE_I_VVC;
+            case LittleEquals.le_i_vvv -> LE_I_VVV;
+            case GreaterThan.gt_i_vvc -> GT_I_VVC;
+            case GreaterThan.gt_i_vvv -> GT_I_VVV;
+            case GreaterEquals.ge_i_vvc -> GE_I_VVC;
+            case GreaterEquals.ge_i_vvv -> GE_I_VVV;
+
+            case Jump.jump_c -> JUMP_C;
+            case Jump.jump_t_B_vc -> JUMP_T_B_VC;
+            case Jump.jump_f_B_vc -> JUMP_F_B_VC;
+
+            case Fused.lt_jf_i_vvc -> LT_JF_I_VVC;
+            case Fused.lt_jf_i_vvv -> LT_JF_I_VVV;
+            case Fused.le_jf_i_vvc -> LE_JF_I_VVC;
+            case Fused.le_jf_i_vvv -> LE_JF_I_VVV;
+            case Fused.gt_jf_i_vvc -> GT_JF_I_VVC;
+            case Fused.gt_jf_i_vvv -> GT_JF_I_VVV;
+            case Fused.ge_jf_i_vvc -> GE_JF_I_VVC;
+            case Fused.ge_jf_i_vvv -> GE_JF_I_VVV;
+            case Fused.eq_jf_i_vvc -> EQ_JF_I_VVC;
+            case Fused.eq_jf_i_vvv -> EQ_JF_I_VVV;
+            case Fused.ne_jf_i_vvc -> NE_JF_I_VVC;
+            case Fused.ne_jf_i_vvv -> NE_JF_I_VVV;
+            case Fused.add_jump_i_vc -> ADD_JUMP_I_VC;
+
+            default -> GENERIC;
+        };
+    }
+}
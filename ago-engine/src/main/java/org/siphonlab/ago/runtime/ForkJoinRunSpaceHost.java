@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.runtime;
+
+import org.siphonlab.ago.RunSpace;
+import org.siphonlab.ago.RunSpaceHost;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.*;
+
+/**
+ * hosts RunSpaces in a work-stealing ForkJoinPool, so forked RunSpaces run on all cores.
+ * a RunSpace executed from a worker of the pool, i.e. forked, resumed or yielded by a running RunSpace, is pushed to the
+ * local queue of that worker, parent and child spaces stay on the same worker until an idle worker steals them.
+ * the pool is in async mode, local queues are FIFO, a yielded RunSpace runs after the RunSpaces already queued.
+ */
+public class ForkJoinRunSpaceHost implements RunSpaceHost {
+
+    private final static Logger logger = LoggerFactory.getLogger(ForkJoinRunSpaceHost.class);
+
+    private final ForkJoinPool pool;
+    private final ScheduledExecutorService timer;
+
+    public ForkJoinRunSpaceHost() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ForkJoinRunSpaceHost(int parallelism) {
+        this(new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true));
+    }
+
+    public ForkJoinRunSpaceHost(ForkJoinPool pool) {
+        this.pool = pool;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ago-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void execute(RunSpace runSpace) {
+        if (ForkJoinTask.getPool() == pool) {
+            ForkJoinTask.adapt(guard(runSpace)).fork();      // local queue of current worker
+        } else {
+            pool.execute(guard(runSpace));
+        }
+    }
+
+    @Override
+    public long getPendingTasks() {
+        return pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+    }
+
+    @Override
+    public Object setTimer(long delay, Runnable handler) {
+        return timer.schedule(() -> pool.execute(guard(handler)), delay, TimeUnit.MILLISECONDS);
+    }
+
+    // ForkJoinTask keeps the exception and nobody joins it, log it like netty event loop does
+    private static Runnable guard(Runnable runnable) {
+        return () -> {
+            try {
+                runnable.run();
+            } catch (Throwable e) {
+                logger.warn("A task raised an exception. Task: " + runnable, e);
+            }
+        };
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+}
@@ -17,28 +17,103 @@ package org.siphonlab.ago.runtime;
 
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
 import org.siphonlab.ago.RunSpace;
 import org.siphonlab.ago.RunSpaceHost;
 
 import java.util.concurrent.TimeUnit;
 
+/**
+ * hosts RunSpaces in event loops of a group. by default all RunSpaces run in one loop of the group.
+ * created with a migrateThreshold, RunSpaces spread over the group, each RunSpace has a home event loop and is always
+ * executed there, so a resume from a foreign thread, i.e. an async native completed, goes back to the loop where its
+ * frames are hot.
+ * a RunSpace first executed in a loop of the group, i.e. forked by a running RunSpace, takes that loop as home,
+ * otherwise the next loop of the group.
+ * a RunSpace migrates to the lightest loop when its home has more than migrateThreshold pending tasks and twice as many
+ * as that loop.
+ */
 public class NettyEventLoopRunSpaceHost implements RunSpaceHost {
-    private final EventLoop eventLoop;
     private final EventLoopGroup eventLoopGroup;
+    private final EventLoop eventLoop;          // the only loop of all RunSpaces, null if spread over the group
+    private final int migrateThreshold;
 
     public NettyEventLoopRunSpaceHost(EventLoopGroup eventLoopGroup) {
+        this.eventLoopGroup = eventLoopGroup;
         this.eventLoop = eventLoopGroup.next();
+        this.migrateThreshold = 0;
+    }
+
+    /**
+     * spread RunSpaces over the loops of group
+     * @param migrateThreshold pending tasks of home loop to consider migration, 0 to disable migration
+     */
+    public NettyEventLoopRunSpaceHost(EventLoopGroup eventLoopGroup, int migrateThreshold) {
         this.eventLoopGroup = eventLoopGroup;
+        this.eventLoop = null;
+        this.migrateThreshold = migrateThreshold;
     }
 
     @Override
     public void execute(RunSpace runSpace) {
-        this.eventLoop.execute(runSpace);
+        if (eventLoop != null) {
+            eventLoop.execute(runSpace);
+            return;
+        }
+        EventLoop home = (EventLoop) runSpace.getHomeWorker();
+        if (home == null) {
+            home = currentEventLoop();
+            if (home == null) home = eventLoopGroup.next();
+            runSpace.setHomeWorker(home);
+        } else if (migrateThreshold > 0) {
+            EventLoop lighter = lighterEventLoop(home);
+            if (lighter != null) {
+                home = lighter;
+                runSpace.setHomeWorker(home);
+            }
+        }
+        home.execute(runSpace);
+    }
+
+    private EventLoop currentEventLoop() {
+        for (EventExecutor executor : eventLoopGroup) {
+            if (executor.inEventLoop()) return (EventLoop) executor;
+        }
+        return null;
     }
 
+    // the lightest loop takes the RunSpace if the home is overloaded, null to stay
+    private EventLoop lighterEventLoop(EventLoop home) {
+        int homePending = pendingTasks(home);
+        if (homePending <= migrateThreshold) return null;
+        EventLoop lightest = null;
+        int lightestPending = homePending;
+        for (EventExecutor executor : eventLoopGroup) {
+            int pending = pendingTasks((EventLoop) executor);
+            if (pending < lightestPending) {
+                lightest = (EventLoop) executor;
+                lightestPending = pending;
+            }
+        }
+        return lightest != null && lightestPending * 2 < homePending ? lightest : null;
+    }
+
+    private static int pendingTasks(EventLoop eventLoop) {
+        return eventLoop instanceof SingleThreadEventExecutor executor ? executor.pendingTasks() : 0;
+    }
+
+    @Override
+    public long getPendingTasks() {
+        long pending = 0;
+        for (EventExecutor executor : eventLoopGroup) {
+            if (executor instanceof SingleThreadEventExecutor singleThreadEventExecutor) pending += singleThreadEventExecutor.pendingTasks();
+        }
+        return pending;
+    }
 
     @Override
     public Object setTimer(long delay, Runnable handler) {
-        return eventLoop.schedule(handler,delay, TimeUnit.MILLISECONDS);
+        return eventLoopGroup.schedule(handler, delay, TimeUnit.MILLISECONDS);
     }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.runtime;
+
+import org.siphonlab.ago.RunSpace;
+import org.siphonlab.ago.RunSpaceHost;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * runs each execution of a RunSpace on a new virtual thread.
+ * natives may block, i.e. Thread.sleep, JDBC or http client, only the virtual thread parks, not the carrier thread,
+ * and RunSpace.awaitTillComplete waits the child RunSpace without holding an event loop.
+ * timers are virtual threads sleeping too.
+ */
+public class VirtualThreadRunSpaceHost implements RunSpaceHost {
+
+    private final ThreadFactory threadFactory;
+
+    public VirtualThreadRunSpaceHost() {
+        this(Thread.ofVirtual().name("ago-", 0).factory());
+    }
+
+    public VirtualThreadRunSpaceHost(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
+
+    @Override
+    public void execute(RunSpace runSpace) {
+        threadFactory.newThread(runSpace).start();
+    }
+
+    /**
+     * @return the timer thread, interrupt it to cancel the timer
+     */
+    @Override
+    public Object setTimer(long delay, Runnable handler) {
+        Thread timer = threadFactory.newThread(() -> {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                return;     // cancelled
+            }
+            handler.run();
+        });
+        timer.start();
+        return timer;
+    }
+}
@@ -15,19 +15,93 @@
  */
 package org.siphonlab.ago.runtime.vertx;
 
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.vertx.core.Context;
 import io.vertx.core.Vertx;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
 import org.siphonlab.ago.RunSpace;
 import org.siphonlab.ago.RunSpaceHost;
 
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * each RunSpace keeps the vertx context of its first execution as home, and is always executed on it,
+ * otherwise vertx.runOnContext from a foreign thread, i.e. a timer or an async native completed, creates a new context
+ * and the RunSpace bounces between event loops.
+ * created with a migrateThreshold, a RunSpace migrates to a context of the lightest event loop when the loop of its home
+ * has more than migrateThreshold pending tasks and twice as many as that loop.
+ */
 public class VertxRunSpaceHost implements RunSpaceHost {
     private final Vertx vertx;
+    private final int migrateThreshold;
+    private volatile Map<EventLoop, Context> loopContexts;      // a context per event loop, targets of migration
 
     public VertxRunSpaceHost(Vertx vertx){
+        this(vertx, 0);
+    }
+
+    /**
+     * @param migrateThreshold pending tasks of the event loop of home context to consider migration, 0 to disable migration
+     */
+    public VertxRunSpaceHost(Vertx vertx, int migrateThreshold){
         this.vertx = vertx;
+        this.migrateThreshold = migrateThreshold;
     }
+
     @Override
     public void execute(RunSpace runSpace) {
-        vertx.runOnContext(event -> runSpace.run());
+        Context home = (Context) runSpace.getHomeWorker();
+        if (home == null) {
+            home = vertx.getOrCreateContext();      // the current context if forked by a running RunSpace
+            runSpace.setHomeWorker(home);
+        } else if (migrateThreshold > 0 && home instanceof ContextInternal homeContext) {
+            Context lighter = lighterContext(homeContext);
+            if (lighter != null) {
+                home = lighter;
+                runSpace.setHomeWorker(home);
+            }
+        }
+        home.runOnContext(event -> runSpace.run());
+    }
+
+    // a context of the lightest loop takes the RunSpace if the loop of home is overloaded, null to stay
+    private Context lighterContext(ContextInternal home) {
+        int homePending = pendingTasks(home.nettyEventLoop());
+        if (homePending <= migrateThreshold) return null;
+        Context lightest = null;
+        int lightestPending = homePending;
+        for (Map.Entry<EventLoop, Context> entry : loopContexts().entrySet()) {
+            int pending = pendingTasks(entry.getKey());
+            if (pending < lightestPending) {
+                lightest = entry.getValue();
+                lightestPending = pending;
+            }
+        }
+        return lightest != null && lightestPending * 2 < homePending ? lightest : null;
+    }
+
+    // vertx assigns event loops to new contexts in turn, create contexts until each loop has one
+    private Map<EventLoop, Context> loopContexts() {
+        Map<EventLoop, Context> loopContexts = this.loopContexts;
+        if (loopContexts == null) {
+            VertxInternal vertxInternal = (VertxInternal) vertx;
+            int loops = 0;
+            for (var ignored : vertxInternal.nettyEventLoopGroup()) loops++;
+            loopContexts = new HashMap<>();
+            for (int i = 0; i < loops * 2 && loopContexts.size() < loops; i++) {
+                ContextInternal context = vertxInternal.createEventLoopContext();
+                loopContexts.putIfAbsent(context.nettyEventLoop(), context);
+            }
+            this.loopContexts = loopContexts;
+        }
+        return loopContexts;
+    }
+
+    private static int pendingTasks(EventLoop eventLoop) {
+        return eventLoop instanceof SingleThreadEventExecutor executor ? executor.pendingTasks() : 0;
     }
 
     public Vertx getVertx() {
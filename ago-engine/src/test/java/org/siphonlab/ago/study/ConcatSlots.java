@@ -63,6 +63,11 @@ public class ConcatSlots {
                         }
                 }
             }
+
+            @Override
+            public void clear() {
+                i1 = i2 = i3 = 0;
+            }
         };
         var slots1 = new Slots(){
             int i1;
@@ -100,6 +105,11 @@ public class ConcatSlots {
                         }
                 }
             }
+
+            @Override
+            public void clear() {
+                i1 = i2 = i3 = 0;
+            }
         };
         slots1.next = slots2;
 
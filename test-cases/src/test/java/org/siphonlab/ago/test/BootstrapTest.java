@@ -235,4 +235,32 @@ public class BootstrapTest {
         //Trace.printOutput();
         assertTrue(Trace.outputted("A", "\n", "A", "A", "a", "123.45", "6.02E23", "3.141592653589793", "0.484375", "123", "6719", "511", "210", "123", "16"));
     }
+
+    @Test @Tag("generic")
+    public void map_object_key_test() throws CompilationError, IOException {
+        run("bootstrap/30.map_object_key.ago");
+        Trace.printOutput();
+        assertTrue(Trace.outputted("2", "C", "true", "true", "false"));
+    }
+
+    @Test @Tag("generic")
+    public void hash_set_test() throws CompilationError, IOException {
+        run("bootstrap/31.hash_set.ago");
+        Trace.printOutput();
+        assertTrue(Trace.outputted("10", "45", "3", "true", "true", "false"));
+    }
+
+    @Test
+    public void box_cache_test() throws CompilationError, IOException {
+        run("bootstrap/32.box_cache.ago");
+        Trace.printOutput();
+        assertTrue(Trace.outputted("100", "100000", "true", "false", "101", "7", "true", "[]"));
+    }
+
+    @Test @Tag("generic")
+    public void for_in_native_test() throws CompilationError, IOException {
+        run("bootstrap/33.for_in_native.ago");
+        Trace.printOutput();
+        assertTrue(Trace.outputted("6", "4", "5", "3", "7", "30", "3", "60", "done"));
+    }
 }
@@ -46,7 +46,8 @@ public class CompilerTest {
                 new File("../ago-sdk/src/lang/lang.ago"),
                 new File("../ago-sdk/src/lang/collection.ago"),
                 new File("../ago-sdk/src/lang/runspace.ago"),
-                new File("../ago-sdk/src/lang/atomic.ago")
+                new File("../ago-sdk/src/lang/atomic.ago"),
+                new File("../ago-sdk/src/lang/channel.ago")
         });
         ClassFile.saveToDirectory(units, "../ago-sdk/compiled/lang/");
     }
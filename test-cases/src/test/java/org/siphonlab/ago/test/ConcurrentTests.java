@@ -15,15 +15,39 @@
  */
 package org.siphonlab.ago.test;
 
+import io.netty.channel.EventLoop;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.core.internal.VertxInternal;
+import org.siphonlab.ago.AgoEngine;
+import org.siphonlab.ago.RunSpace;
+import org.siphonlab.ago.RunSpaceHost;
+import org.siphonlab.ago.RunSpaceMetrics;
 import org.siphonlab.ago.compiler.exception.CompilationError;
 import org.siphonlab.ago.lang.Trace;
+import org.siphonlab.ago.runtime.NettyEventLoopRunSpaceHost;
+import org.siphonlab.ago.runtime.vertx.VertxRunSpaceHost;
 
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.siphonlab.ago.test.Util.run;
+import static org.siphonlab.ago.test.Util.runInForkJoinSpace;
+import static org.siphonlab.ago.test.Util.runInVirtualThreadSpace;
 import static org.siphonlab.ago.test.Util.runInVertxSpace;
+import static org.siphonlab.ago.test.Util.runWithMetrics;
 
 public class ConcurrentTests {
 
@@ -46,10 +70,36 @@ public class ConcurrentTests {
         assertTrue(Trace.outputted("f1", "f2", "f3", "put the elephant in", "close the door", "open the door"));
     }
 
+    @Test
+    public void spawn_many_fork_join() throws IOException, CompilationError, InterruptedException {
+        runInForkJoinSpace("concurrent/spawn_many.ago", "main#");
+        // the spawned RunSpaces start in parallel on the workers
+        assertTrue(Trace.outputtedInAnyOrder("f1", "f2", "f3", "put the elephant in", "close the door", "open the door"));
+    }
+
+    @Test
+    public void spawn_many_virtual_thread() throws IOException, CompilationError, InterruptedException {
+        runInVirtualThreadSpace("concurrent/spawn_many.ago", "main#");
+        // each spawned RunSpace starts on its own virtual thread
+        assertTrue(Trace.outputtedInAnyOrder("f1", "f2", "f3", "put the elephant in", "close the door", "open the door"));
+    }
+
+    @Test
+    public void fork_many() throws IOException, CompilationError, InterruptedException {
+        runInVertxSpace("concurrent/fork_many.ago", "main#");
+        assertTrue(Trace.outputted("forked", "f2 done", "f3 done", "f1 done"));
+    }
+
     @Test
     public void await_many() throws IOException, CompilationError, InterruptedException {
         runInVertxSpace("concurrent/await_many.ago", "main#");
-        assertTrue(Trace.outputted("f1", "f2", "f3"));
+        assertTrue(Trace.outputted("f1", "f2", "f3", "1", "2", "3"));
+    }
+
+    @Test
+    public void await_forked() throws IOException, CompilationError, InterruptedException {
+        runInVertxSpace("concurrent/await_forked.ago", "main#");
+        assertTrue(Trace.outputted("forked", "f done", "42"));
     }
 
     @Test
@@ -59,10 +109,164 @@ public class ConcurrentTests {
         assertTrue(Trace.outputted("have a rest", "task1", "subtask 1", "subtask 2", "subtask 3", "move on", "subtask 2 done", "subtask 3 done", "subtask 1 done"));
     }
 
+    @Test
+    public void time_slice() throws IOException, CompilationError, InterruptedException {
+        run("concurrent/time_slice.ago");
+        assertTrue(Trace.outputted("a start", "b start", "a done", "b done"));
+    }
+
+    @Test
+    public void timeout() throws IOException, CompilationError, InterruptedException {
+        run("concurrent/timeout.ago");
+        assertTrue(Trace.outputted("2", "timeout after 50 ms"));
+    }
+
+    @Test
+    public void channel() throws IOException, CompilationError, InterruptedException {
+        runInVertxSpace("concurrent/channel.ago", "main#");
+        assertTrue(Trace.outputted("30"));
+    }
+
+    @Test
+    public void scope() throws IOException, CompilationError, InterruptedException {
+        runInVertxSpace("concurrent/scope.ago", "main#");
+        assertTrue(Trace.outputted("failed", "ok done", "1"));
+    }
+
+    @Test
+    public void metrics() throws IOException, CompilationError, InterruptedException {
+        RunSpaceMetrics metrics = runWithMetrics("concurrent/await_many.ago", "main#");
+        assertTrue(Trace.outputted("f1", "f2", "f3", "1", "2", "3"));
+        assertTrue(metrics.getDoneCount() >= 4);       // main and 3 forked
+        assertTrue(metrics.getRunQuantumCount() > 0);
+        assertTrue(metrics.getWaitCount() >= 3);        // sleeps
+    }
+
     @Test
     public void forkContext() throws IOException, CompilationError, InterruptedException {
         runInVertxSpace("concurrent/fork_context.ago", "main#");
     }
 
+    @Test
+    public void scoped_class() throws IOException, CompilationError, InterruptedException {
+        runInVertxSpace("concurrent/scoped_class.ago", "main#");
+        assertTrue(Trace.outputted("counter ready", "counter ready", "11", "counter ready", "12"));     // the first by meta class applied at load
+    }
+
+    // records the thread it ran on instead of running frames
+    private static class ProbeRunSpace extends RunSpace {
+        private final CountDownLatch ran = new CountDownLatch(1);
+        private volatile Thread thread;
+
+        ProbeRunSpace(RunSpaceHost host) {
+            super(new AgoEngine(host), host);
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            ran.countDown();
+        }
+    }
+
+    @Test
+    public void event_loop_host_single_loop() throws InterruptedException {
+        NioEventLoopGroup group = new NioEventLoopGroup(4);
+        try {
+            NettyEventLoopRunSpaceHost host = new NettyEventLoopRunSpaceHost(group);
+            Set<Thread> threads = new HashSet<>();
+            for (int i = 0; i < 8; i++) {
+                ProbeRunSpace probe = new ProbeRunSpace(host);
+                host.execute(probe);
+                assertTrue(probe.ran.await(5, TimeUnit.SECONDS));
+                assertNull(probe.getHomeWorker());
+                threads.add(probe.thread);
+            }
+            assertEquals(1, threads.size());
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+
+    @Test
+    public void event_loop_host_spread() throws IOException, CompilationError, InterruptedException {
+        NioEventLoopGroup group = new NioEventLoopGroup(4);
+        try {
+            NettyEventLoopRunSpaceHost host = new NettyEventLoopRunSpaceHost(group, 0);
+            Set<Thread> threads = new HashSet<>();
+            for (int i = 0; i < 8; i++) {
+                ProbeRunSpace probe = new ProbeRunSpace(host);
+                host.execute(probe);
+                assertTrue(probe.ran.await(5, TimeUnit.SECONDS));
+                threads.add(probe.thread);
+                // executed again on its home
+                Object home = probe.getHomeWorker();
+                host.execute(probe);
+                assertSame(home, probe.getHomeWorker());
+            }
+            assertTrue(threads.size() > 1);
 
+            run("concurrent/spawn_many.ago", "main#", host);
+            assertTrue(Trace.outputtedInAnyOrder("f1", "f2", "f3", "put the elephant in", "close the door", "open the door"));
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+
+    @Test
+    public void event_loop_host_migrate() throws InterruptedException {
+        NioEventLoopGroup group = new NioEventLoopGroup(2);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            NettyEventLoopRunSpaceHost host = new NettyEventLoopRunSpaceHost(group, 4);
+            EventLoop busy = group.next();
+            busy.execute(() -> await(release));
+            for (int i = 0; i < 10; i++) busy.execute(() -> {});
+
+            ProbeRunSpace probe = new ProbeRunSpace(host);
+            probe.setHomeWorker(busy);
+            host.execute(probe);
+            assertNotSame(busy, probe.getHomeWorker());
+            assertTrue(probe.ran.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            group.shutdownGracefully();
+        }
+    }
+
+    @Test
+    public void vertx_host_migrate() throws InterruptedException {
+        Vertx vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(2));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            VertxRunSpaceHost host = new VertxRunSpaceHost(vertx, 4);
+            ContextInternal busy = ((VertxInternal) vertx).createEventLoopContext();
+            busy.runOnContext(v -> await(release));
+            for (int i = 0; i < 10; i++) busy.runOnContext(v -> {});
+
+            ProbeRunSpace probe = new ProbeRunSpace(host);
+            probe.setHomeWorker(busy);
+            host.execute(probe);
+            assertNotSame(busy.nettyEventLoop(), ((ContextInternal) probe.getHomeWorker()).nettyEventLoop());
+            assertTrue(probe.ran.await(5, TimeUnit.SECONDS));
+
+            // without migrateThreshold the RunSpace stays on its home
+            VertxRunSpaceHost pinned = new VertxRunSpaceHost(vertx);
+            ProbeRunSpace stay = new ProbeRunSpace(pinned);
+            stay.setHomeWorker(busy);
+            pinned.execute(stay);
+            assertSame(busy, stay.getHomeWorker());
+        } finally {
+            release.countDown();
+            vertx.close();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
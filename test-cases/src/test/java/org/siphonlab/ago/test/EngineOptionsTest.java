@@ -0,0 +1,251 @@
+/*
+ * Copyright © 2026 Inshua (inshua@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.siphonlab.ago.test;
+
+import org.siphonlab.ago.AgoClass;
+import org.siphonlab.ago.AgoEngine;
+import org.siphonlab.ago.AgoFunction;
+import org.siphonlab.ago.ClassBound;
+import org.siphonlab.ago.ArraySlotsCreatorFactory;
+import org.siphonlab.ago.classloader.AgoClassLoader;
+import org.siphonlab.ago.classloader.FrameEscapeAnalyzer;
+import org.siphonlab.ago.compiler.exception.CompilationError;
+import org.siphonlab.ago.jit.CompiledFunction;
+import org.siphonlab.ago.jit.FunctionCompiler;
+import org.siphonlab.ago.lang.Trace;
+import org.siphonlab.ago.opcode.Fused;
+import org.siphonlab.ago.opcode.OpCode;
+import org.siphonlab.ago.opcode.Predecoded;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.siphonlab.ago.test.Util.run;
+
+// the engine options are optimizations, an example prints the same lines whether they are on or off
+public class EngineOptionsTest {
+
+    // the examples of BootstrapTest, except base_types which prints a hash code and variance which prints nothing
+    private static final List<String> BOOTSTRAP_EXAMPLES = List.of(
+            "bootstrap/hello_world.ago", "bootstrap/0.add.ago", "bootstrap/1.inherits.ago", "bootstrap/2.static_instance.ago",
+            "bootstrap/3.pronoun.ago", "bootstrap/4.polymorphism.ago", "bootstrap/5.metaclass.ago", "bootstrap/6.array.ago",
+            "bootstrap/7.class_ref.ago", "bootstrap/8.box_unbox.ago", "bootstrap/9.parameterized_class.ago",
+            "bootstrap/10.class_interval.ago", "bootstrap/11.generictype.ago",
+            "bootstrap/13.interface.ago", "bootstrap/14.callback.ago", "bootstrap/15.initial_block.ago",
+            "bootstrap/16.wrapper.ago", "bootstrap/17.trait.ago", "bootstrap/18.getter_setter.ago", "bootstrap/20.boxer.ago",
+            "bootstrap/field.ago", "bootstrap/21.enum.ago", "bootstrap/22.const.ago", "bootstrap/23.var_args.ago",
+            "bootstrap/24.runspace.ago", "bootstrap/25.iterable.ago", "bootstrap/26.list.ago", "bootstrap/27.map.ago",
+            "bootstrap/28.template_string.ago", "bootstrap/29.literals.ago", "bootstrap/30.map_object_key.ago",
+            "bootstrap/31.hash_set.ago", "bootstrap/32.box_cache.ago", "bootstrap/33.for_in_native.ago");
+
+    private static final Map<String, String> ENTRANCES = Map.of("bootstrap/3.pronoun.ago", "my.test.Meta@<B>.main#");
+
+    private static List<String> runWith(String filename, Consumer<AgoEngine> option) throws CompilationError, IOException {
+        AgoEngine engine = new AgoEngine();
+        option.accept(engine);
+        return runWith(filename, engine);
+    }
+
+    private static List<String> runWith(String filename, AgoEngine engine) throws CompilationError, IOException {
+        return runWith(filename, engine, new AgoClassLoader());
+    }
+
+    private static List<String> runWith(String filename, AgoEngine engine, AgoClassLoader classLoader) throws CompilationError, IOException {
+        Trace.clear();
+        run(filename, ENTRANCES.getOrDefault(filename, "main#"), engine, classLoader);
+        return Trace.getLines();
+    }
+
+    // compiles with FunctionCompiler directly, a failed compilation fails the test rather than keeps interpreting
+    private static class CheckedJitEngine extends AgoEngine {
+        private final AtomicInteger compiled = new AtomicInteger();
+
+        @Override
+        public CompiledFunction compileFunction(AgoFunction agoFunction) {
+            CompiledFunction compiledFunction = new FunctionCompiler(agoFunction).compile();
+            if (compiledFunction != null) {
+                agoFunction.setCompiledFunction(compiledFunction);
+                compiled.incrementAndGet();
+            }
+            return compiledFunction;
+        }
+    }
+
+    @Test
+    public void jit_threshold_one() throws CompilationError, IOException {
+        int compiled = 0;
+        for (String example : BOOTSTRAP_EXAMPLES) {
+            var interpreted = runWith(example, engine -> engine.setJitThreshold(0));
+            assertFalse(interpreted.isEmpty(), example);
+            CheckedJitEngine engine = new CheckedJitEngine();
+            engine.setJitThreshold(1);      // compile each function when first entered
+            assertEquals(interpreted, runWith(example, engine), example);
+            compiled += engine.compiled.get();
+        }
+        assertTrue(compiled > 0);
+    }
+
+    @Test
+    public void array_slots() throws CompilationError, IOException {
+        for (String example : BOOTSTRAP_EXAMPLES) {
+            var generated = runWith(example, new AgoEngine());
+            assertFalse(generated.isEmpty(), example);
+            assertEquals(generated, runWith(example, new AgoEngine(), new AgoClassLoader(new ArraySlotsCreatorFactory())), example);
+        }
+    }
+
+    @Test
+    public void frame_pooling() throws CompilationError, IOException {
+        var pooled = runWith("engine/recursion.ago", engine -> engine.setFramePooling(true));
+        assertEquals(List.of("6765", "0,1,2,3,4,5,6,7,8,9,10", "500500", "50", "65", "1760"), pooled);
+        assertEquals(pooled, runWith("engine/recursion.ago", engine -> engine.setFramePooling(false)));
+    }
+
+    @Test
+    public void frame_escape_flags() throws CompilationError, IOException {
+        AgoEngine engine = new AgoEngine();
+        assertEquals(List.of("21", "41"), runWith("engine/escape.ago", engine));
+
+        // the flags written by compiler survive the class file
+        AgoFunction plain = (AgoFunction) engine.getClass("Esc.plain#");
+        AgoFunction guarded = (AgoFunction) engine.getClass("Esc.guarded#");
+        assertTrue(plain.isFrameRecyclable());
+        assertFalse(guarded.isFrameRecyclable());
+        // the fallback for class files without the flags gets the same result
+        assertFalse(FrameEscapeAnalyzer.isFrameEscaped(plain.getCode()));
+        assertTrue(FrameEscapeAnalyzer.isFrameEscaped(guarded.getCode()));
+
+        // `esc.plain(10)` creates a frame for the invocation only
+        byte[] decoded = ((AgoFunction) engine.getClass("main#")).getDecodedCode();
+        int localInvokes = 0;
+        for (byte handler : decoded) {
+            if (handler == Predecoded.INVOKE_V_LOCAL) localInvokes++;
+        }
+        assertTrue(localInvokes >= 2);
+    }
+
+    @Test
+    public void interface_inline_cache() throws CompilationError, IOException {
+        AgoEngine engine = new AgoEngine();
+        assertEquals(List.of("ABCDEFABCDEF"), runWith("engine/dispatch.ago", engine));
+        // one cache for the only call site
+        assertEquals(1, ((AgoFunction) engine.getClass("show#")).getInlineCaches().length);
+
+        // redefine A.name as B.name, the new dispatch key of A misses the entry cached for A
+        AgoClass a = engine.getClass("A");
+        AgoClass b = engine.getClass("B");
+        int named = engine.getClass("Named").getClassId();
+        AgoFunction[] methods = a.getMethods().clone();
+        methods[a.getInterfacesMethods().get(named)[0]] = b.resolveMethodByInterface(named, 0);
+        a.setMethods(methods);
+        Trace.clear();
+        engine.run("main#");
+        assertEquals(List.of("BBCDEFBBCDEF"), Trace.getLines());
+    }
+
+    @Test
+    public void subtype_display() throws CompilationError, IOException {
+        AgoClassLoader classLoader = new AgoClassLoader();
+        runWith("engine/subtype.ago", new AgoEngine(), classLoader);
+
+        // super class, that or sub class, expected
+        Object[][] table = {
+                {"Animal", "Bird", true},
+                {"Bird", "Animal", false},
+                {"Animal", "Sparrow", true},
+                {"Bird", "Sparrow", true},
+                {"Flyable", "Sparrow", true},           // interface
+                {"Sparrow", "Flyable", false},
+                {"Flyable", "Bird", false},
+                {"Animal", "Flyable", true},            // permit class of interface
+                {"Bird", "Flyable", false},
+                {"Singer", "Sparrow", true},            // trait
+                {"Singer", "Bird", false},
+                {"Box<Animal>", "Box<Animal>", true},   // generic instantiations
+                {"Box<Animal>", "Box<Bird>", false},
+                {"Animal", "Box<Animal>", false},
+                {"lang.Object", "Flyable", true},       // lang.Object is that or super of any class
+                {"lang.Object", "Box<Bird>", true},
+                {"lang.Object", "Singer", true},
+        };
+        for (Object[] row : table) {
+            AgoClass superClass = classLoader.getClass((String) row[0]);
+            AgoClass subClass = classLoader.getClass((String) row[1]);
+            assertEquals(row[2], superClass.isThatOrSuperOfThat(subClass), row[0] + " of " + row[1]);
+            assertEquals(row[2], superClass.asThatOrSuperOfThat(subClass) != null, row[0] + " of " + row[1]);
+        }
+
+        // the display agrees with the walk over all loaded classes, lang classes included, except class intervals
+        List<AgoClass> classes = classLoader.getClasses().stream().filter(c -> c != null && !ClassBound.isClassBound(c)).toList();
+        for (AgoClass a : classes) {
+            for (AgoClass b : classes) {
+                assertEquals(a.asThatOrSuperOfThat(b) != null, a.isThatOrSuperOfThat(b), a + " of " + b);
+            }
+        }
+    }
+
+    @Test
+    public void inline_native_call() throws CompilationError, IOException {
+        var inline = runWith("engine/native_calls.ago", engine -> engine.setInlineNativeCall(true));
+        assertEquals(List.of("499500", "10", "90", "10", "true", "false", "7", "94", "false"), inline);
+        // NativeFrames of local call sites are recycled only when pooling is on
+        assertEquals(inline, runWith("engine/native_calls.ago", engine -> engine.setFramePooling(false)));
+        assertEquals(inline, runWith("engine/native_calls.ago", engine -> engine.setInlineNativeCall(false)));
+    }
+
+    @Test
+    public void inline_native_call_async() throws CompilationError, IOException {
+        var inline = runWith("engine/async_native.ago", engine -> engine.setInlineNativeCall(true));
+        assertTrue(Trace.outputted("10", "30"));
+        assertEquals(inline, runWith("engine/async_native.ago", engine -> engine.setInlineNativeCall(false)));
+    }
+
+    @Test
+    public void fused_instructions() throws CompilationError, IOException {
+        var expected = List.of("lt0 lt1 lt2 le0 le1 le2 gt5 gt4 ge3 ge2 eq1 ne1", "100011", "11010", "101100", "7100004");
+        AgoEngine interpreter = new AgoEngine();
+        interpreter.setJitThreshold(0);
+        assertEquals(expected, runWith("engine/fused.ago", interpreter));
+
+        // each superinstruction is in the code, so the interpreter and the jit both evaluated it
+        Set<Integer> fused = new HashSet<>();
+        for (String name : List.of("constants#", "variables#", "main#")) {
+            int[] code = ((AgoFunction) interpreter.getClass(name)).getCode();
+            for (int pc = 0; pc < code.length; pc += 1 + (code[pc] & OpCode.SIZE_MASK)) {
+                if ((code[pc] & OpCode.KIND_MASK) == Fused.KIND_FUSED) fused.add(code[pc]);
+            }
+        }
+        assertEquals(Set.of(Fused.lt_jf_i_vvc, Fused.lt_jf_i_vvv, Fused.le_jf_i_vvc, Fused.le_jf_i_vvv,
+                Fused.gt_jf_i_vvc, Fused.gt_jf_i_vvv, Fused.ge_jf_i_vvc, Fused.ge_jf_i_vvv,
+                Fused.eq_jf_i_vvc, Fused.eq_jf_i_vvv, Fused.ne_jf_i_vvc, Fused.ne_jf_i_vvv,
+                Fused.add_jump_i_vc), fused);
+
+        CheckedJitEngine jit = new CheckedJitEngine();
+        jit.setJitThreshold(1);
+        assertEquals(expected, runWith("engine/fused.ago", jit));
+        assertEquals(3, jit.compiled.get());
+    }
+}
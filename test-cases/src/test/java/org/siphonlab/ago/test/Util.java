@@ -23,12 +23,16 @@ import org.apache.commons.io.file.PathUtils;
 import org.apache.commons.lang3.RandomUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.siphonlab.ago.AgoEngine;
+import org.siphonlab.ago.RunSpaceHost;
+import org.siphonlab.ago.RunSpaceMetrics;
 import org.siphonlab.ago.classloader.AgoClassLoader;
 import org.siphonlab.ago.compiler.ClassDef;
 import org.siphonlab.ago.compiler.ClassFile;
 import org.siphonlab.ago.compiler.Compiler;
 import org.siphonlab.ago.compiler.Unit;
 import org.siphonlab.ago.compiler.exception.CompilationError;
+import org.siphonlab.ago.runtime.ForkJoinRunSpaceHost;
+import org.siphonlab.ago.runtime.VirtualThreadRunSpaceHost;
 import org.siphonlab.ago.runtime.rdb.json.lazy.JsonAgoClassLoader;
 import org.siphonlab.ago.runtime.rdb.json.lazy.LazyJsonAgoEngine;
 import org.siphonlab.ago.runtime.rdb.json.lazy.LazyJsonPGAdapter;
@@ -49,6 +53,8 @@ public class Util {
     public enum RunEngine{
         NettyEngine,
         VertxEngine,
+        ForkJoinEngine,
+        VirtualThreadEngine,
         PGJsonReactiveEngine,
         PGJsonLazyEngine,
     }
@@ -57,6 +63,10 @@ public class Util {
         String s = System.getenv("engine");
         if("vertx".equalsIgnoreCase(s)){
             return RunEngine.VertxEngine;
+        } else if("forkjoin".equalsIgnoreCase(s)){
+            return RunEngine.ForkJoinEngine;
+        } else if("virtual".equalsIgnoreCase(s)){
+            return RunEngine.VirtualThreadEngine;
         } else if("PGJsonLazy".equalsIgnoreCase(s)){
             return RunEngine.PGJsonLazyEngine;
         } else if("PGJsonReactive".equalsIgnoreCase(s)){
@@ -101,6 +111,14 @@ public class Util {
                 runInVertxSpace(filename,entrance);
                 break;
 
+            case ForkJoinEngine:
+                runInForkJoinSpace(filename, entrance);
+                break;
+
+            case VirtualThreadEngine:
+                runInVirtualThreadSpace(filename, entrance);
+                break;
+
             case PGJsonLazyEngine:
                 runWithPGJsonLazy(filename, entrance);
                 break;
@@ -112,35 +130,58 @@ public class Util {
         compile(filename);
 
         AgoEngine engine = new AgoEngine();
-        AgoClassLoader agoClassLoader = new AgoClassLoader();
+        engine.load(loadClasses(filename, new AgoClassLoader()));
 
-        if(new File("../ago-sdk/compiled/lang/").exists()) {
-            agoClassLoader.loadClasses("../ago-sdk/compiled/lang/", "output/%s".formatted(filename));
-        } else {
-            agoClassLoader.loadClasses(new ZipInputStream(new FileInputStream("../ago-sdk/lang.agopkg")));
-            agoClassLoader.loadClasses("output/%s".formatted(filename));
-        }
+        engine.run(entrance);
+    }
+
+    public static void runInVertxSpace(String filename, String entrance) throws CompilationError, IOException {
+        run(filename, entrance, new VertxRunSpaceHost(Vertx.vertx()));
+    }
 
-        engine.load(agoClassLoader);
+    public static void runInForkJoinSpace(String filename, String entrance) throws CompilationError, IOException {
+        run(filename, entrance, new ForkJoinRunSpaceHost());
+    }
+
+    public static void runInVirtualThreadSpace(String filename, String entrance) throws CompilationError, IOException {
+        run(filename, entrance, new VirtualThreadRunSpaceHost());
+    }
+
+    public static void run(String filename, String entrance, RunSpaceHost runSpaceHost) throws CompilationError, IOException {
+        run(filename, entrance, new AgoEngine(runSpaceHost), new AgoClassLoader());
+    }
+
+    // the engine and class loader configured by the test
+    public static void run(String filename, String entrance, AgoEngine engine, AgoClassLoader agoClassLoader) throws CompilationError, IOException {
+        Util.compile(filename);
+
+        engine.load(loadClasses(filename, agoClassLoader));
 
         engine.run(entrance);
     }
 
-    public static void runInVertxSpace(String filename, String entrance) throws CompilationError, IOException {
+    public static RunSpaceMetrics runWithMetrics(String filename, String entrance) throws CompilationError, IOException {
         Util.compile(filename);
 
-        AgoEngine engine = new AgoEngine(new VertxRunSpaceHost(Vertx.vertx()));
-        AgoClassLoader agoClassLoader = new AgoClassLoader();
+        var runSpaceHost = new ForkJoinRunSpaceHost();
+        AgoEngine engine = new AgoEngine(runSpaceHost);
+        var metrics = new RunSpaceMetrics(runSpaceHost);
+        engine.setMetricsSink(metrics);
+        engine.load(loadClasses(filename, new AgoClassLoader()));
+
+        engine.run(entrance);
+        return metrics;
+    }
+
+    // lang and the compiled example
+    static AgoClassLoader loadClasses(String filename, AgoClassLoader agoClassLoader) throws IOException {
         if(new File("../ago-sdk/compiled/lang/").exists()) {
             agoClassLoader.loadClasses("../ago-sdk/compiled/lang/", "output/%s".formatted(filename));
         } else {
             agoClassLoader.loadClasses(new ZipInputStream(new FileInputStream("../ago-sdk/lang.agopkg")));
             agoClassLoader.loadClasses("output/%s".formatted(filename));
         }
-
-        engine.load(agoClassLoader);
-
-        engine.run(entrance);
+        return agoClassLoader;
     }
 
     public static int applicationId = 0;
@@ -150,13 +191,7 @@ public class Util {
         if (applicationId == 0) applicationId = RandomUtils.insecure().randomInt();
 
         PGJsonSlotsCreatorFactory slotsCreatorFactory = new PGJsonSlotsCreatorFactory();
-        var agoClassLoader = new AgoClassLoader(slotsCreatorFactory);
-        if(new File("../ago-sdk/compiled/lang/").exists()) {
-            agoClassLoader.loadClasses("../ago-sdk/compiled/lang/", "output/%s".formatted(filename));
-        } else {
-            agoClassLoader.loadClasses(new ZipInputStream(new FileInputStream("../ago-sdk/lang.agopkg")));
-            agoClassLoader.loadClasses("output/%s".formatted(filename));
-        }
+        var agoClassLoader = loadClasses(filename, new AgoClassLoader(slotsCreatorFactory));
 
         BasicDataSource ds = new BasicDataSource();
         ds.setDriverClassName("org.postgresql.Driver");